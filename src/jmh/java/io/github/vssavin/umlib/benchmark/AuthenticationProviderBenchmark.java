@@ -0,0 +1,51 @@
+package io.github.vssavin.umlib.benchmark;
+
+import io.github.vssavin.umlib.security.spring.CustomAuthenticationProvider;
+import io.github.vssavin.umlib.security.spring.CustomUsernamePasswordAuthenticationToken;
+import io.github.vssavin.umlib.service.impl.SecureKeyManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Form login: decrypting of the password, user lookup and password hash check.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AuthenticationProviderBenchmark {
+
+    @Param({"no", "aes", "rsa"})
+    private String authService;
+
+    private AnnotationConfigWebApplicationContext context;
+    private CustomAuthenticationProvider authenticationProvider;
+    private String encryptedPassword;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start(authService, "10");
+        authenticationProvider = context.getBean(CustomAuthenticationProvider.class);
+        SecureKeyManager secureKeyManager = context.getBean(SecureKeyManager.class);
+        //generated users have password equal to login, the provider decrypts with the key of the manager
+        encryptedPassword = secureKeyManager.getSecureService().encrypt("1", secureKeyManager.getSecureKey(""));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Authentication authenticate() {
+        return authenticationProvider.authenticate(
+                new CustomUsernamePasswordAuthenticationToken("1", encryptedPassword));
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.vssavin.umlib.benchmark;
+
+import io.github.vssavin.umlib.security.spring.AuthenticationRateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Banned address check which is performed by BannedIpFilter for every request.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class BannedIpBenchmark {
+    private static final int ADDRESSES_COUNT = 10_000;
+
+    private AuthenticationRateLimiter rateLimiter;
+    private String[] addresses;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        rateLimiter = new AuthenticationRateLimiter(3, TimeUnit.MINUTES.toMillis(10), TimeUnit.HOURS.toMillis(1),
+                ADDRESSES_COUNT * 2, Clock.systemUTC());
+        addresses = new String[ADDRESSES_COUNT];
+        for (int i = 0; i < ADDRESSES_COUNT; i++) {
+            addresses[i] = "10.0." + (i / 256) + "." + (i % 256);
+            //every tenth address is banned, others have one failed attempt
+            int failures = i % 10 == 0 ? 3 : 1;
+            for (int j = 0; j < failures; j++) {
+                rateLimiter.registerFailure(addresses[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isBanned() {
+        return rateLimiter.isBanned(addresses[ThreadLocalRandom.current().nextInt(ADDRESSES_COUNT)]);
+    }
+
+    @Benchmark
+    public boolean registerFailure() {
+        return rateLimiter.registerFailure(addresses[ThreadLocalRandom.current().nextInt(ADDRESSES_COUNT)]);
+    }
+}
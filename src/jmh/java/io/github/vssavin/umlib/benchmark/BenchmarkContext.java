@@ -0,0 +1,34 @@
+package io.github.vssavin.umlib.benchmark;
+
+import io.github.vssavin.umlib.config.ApplicationConfig;
+import io.github.vssavin.umlib.config.UmTemplateResolverConfig;
+import org.apache.log4j.xml.DOMConfigurator;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+/**
+ * Starts the same application context as controller tests: embedded H2 database
+ * seeded by UserGeneratorService.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+final class BenchmarkContext {
+    static final String DEFAULT_USERS_COUNT = "1000";
+
+    static {
+        DOMConfigurator.configure("./log4j.xml");
+    }
+
+    private BenchmarkContext() {}
+
+    static AnnotationConfigWebApplicationContext start(String authService, String usersCount) {
+        System.setProperty("authService", authService);
+        System.setProperty("userGenerator.count", usersCount);
+        AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.getEnvironment().setActiveProfiles("um-test");
+        context.register(ApplicationConfig.class, UmTemplateResolverConfig.class);
+        context.refresh();
+        return context;
+    }
+}
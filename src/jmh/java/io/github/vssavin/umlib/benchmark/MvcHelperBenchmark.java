@@ -0,0 +1,52 @@
+package io.github.vssavin.umlib.benchmark;
+
+import io.github.vssavin.umlib.config.LocaleConfig;
+import io.github.vssavin.umlib.helper.MvcHelper;
+import io.github.vssavin.umlib.language.UmLanguage;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adding of localized page messages to the model.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MvcHelperBenchmark {
+
+    @Param({"ru", "en"})
+    private String lang;
+
+    private AnnotationConfigWebApplicationContext context;
+    private Set<String> loginPageParams;
+    private UmLanguage language;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("no", "0");
+        loginPageParams = context.getBean("loginMessageSource", LocaleConfig.LocaleSpringMessageSource.class)
+                .getKeys();
+        language = context.getBean(UmLanguage.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ModelAndView addObjectsToModelAndView() {
+        ModelAndView modelAndView = new ModelAndView("login");
+        MvcHelper.addObjectsToModelAndView(modelAndView, loginPageParams, language, "no", lang);
+        return modelAndView;
+    }
+}
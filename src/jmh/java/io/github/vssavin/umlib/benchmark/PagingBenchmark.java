@@ -0,0 +1,31 @@
+package io.github.vssavin.umlib.benchmark;
+
+import io.github.vssavin.umlib.pagination.Paging;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PagingBenchmark {
+
+    @Param({"5", "100", "10000"})
+    private int totalPages;
+
+    @Benchmark
+    public Paging firstPage() {
+        return Paging.of(totalPages, 1, 10);
+    }
+
+    @Benchmark
+    public Paging middlePage() {
+        return Paging.of(totalPages, Math.max(1, totalPages / 2), 10);
+    }
+}
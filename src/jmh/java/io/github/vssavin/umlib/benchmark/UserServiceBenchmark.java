@@ -0,0 +1,56 @@
+package io.github.vssavin.umlib.benchmark;
+
+import io.github.vssavin.umlib.dto.UserFilter;
+import io.github.vssavin.umlib.entity.User;
+import io.github.vssavin.umlib.pagination.Paged;
+import io.github.vssavin.umlib.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users list of the admin page.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    @Param({BenchmarkContext.DEFAULT_USERS_COUNT})
+    private String usersCount;
+
+    @Param({"1", "10"})
+    private int pageNumber;
+
+    private AnnotationConfigWebApplicationContext context;
+    private UserService userService;
+    private UserFilter loginFilter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start("no", usersCount);
+        userService = context.getBean(UserService.class);
+        loginFilter = new UserFilter(null, "1%", null, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Paged<User> getUsersWithoutFilter() {
+        return userService.getUsers(UserFilter.emptyUserFilter(), pageNumber, 10);
+    }
+
+    @Benchmark
+    public Paged<User> getUsersWithFilter() {
+        return userService.getUsers(loginFilter, pageNumber, 10);
+    }
+}
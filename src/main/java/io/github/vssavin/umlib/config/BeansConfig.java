@@ -1,24 +1,95 @@
 package io.github.vssavin.umlib.config;
 
+import io.github.vssavin.umlib.metrics.NoOpUmMetrics;
+import io.github.vssavin.umlib.metrics.SimpleUmMetrics;
+import io.github.vssavin.umlib.metrics.UmMetrics;
+import io.github.vssavin.umlib.security.spring.BanStore;
+import io.github.vssavin.umlib.security.spring.BoundedPasswordEncoder;
+import io.github.vssavin.umlib.security.spring.JdbcBanStore;
+import io.github.vssavin.umlib.security.spring.LocalBanStore;
+import io.github.vssavin.umlib.service.RecoveryTokenStore;
+import io.github.vssavin.umlib.service.UserCache;
+import io.github.vssavin.umlib.service.impl.ExpiredUsersPurger;
+import io.github.vssavin.umlib.service.impl.InMemoryRecoveryTokenStore;
+import io.github.vssavin.umlib.service.impl.JdbcRecoveryTokenStore;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author vssavin on 18.12.2021
  */
 @Component
 public class BeansConfig {
+    public static final String BCRYPT_ENCODER_ID = "bcrypt";
+    public static final String PBKDF2_ENCODER_ID = "pbkdf2";
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public UmMetrics umMetrics(UmConfig umConfig) {
+        return umConfig.isMetricsEnabled() ? new SimpleUmMetrics() : NoOpUmMetrics.INSTANCE;
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(UmConfig umConfig, UmMetrics umMetrics) {
+        PasswordEncoder encoder = new BCryptPasswordEncoder(umConfig.getPasswordEncoderStrength());
+        if (umConfig.isPasswordEncoderDelegating()) {
+            Map<String, PasswordEncoder> encoders = new HashMap<>();
+            encoders.put(BCRYPT_ENCODER_ID, encoder);
+            encoders.put(PBKDF2_ENCODER_ID, new Pbkdf2PasswordEncoder());
+            DelegatingPasswordEncoder delegatingEncoder = new DelegatingPasswordEncoder(BCRYPT_ENCODER_ID, encoders);
+            //hashes saved before switching to this mode have no id prefix
+            delegatingEncoder.setDefaultPasswordEncoderForMatches(encoder);
+            encoder = delegatingEncoder;
+        }
+        BoundedPasswordEncoder boundedEncoder = new BoundedPasswordEncoder(encoder,
+                umConfig.getPasswordEncoderThreads(), umConfig.getPasswordEncoderQueueCapacity(),
+                umConfig.getPasswordEncoderTimeoutMillis());
+        umMetrics.gauge("um.passwordEncoder.queueSize", boundedEncoder::getQueueSize);
+        umMetrics.gauge("um.passwordEncoder.rejected", boundedEncoder::getRejectedCount);
+        return boundedEncoder;
     }
 
     @Bean()
     public JavaMailSender emailSender() {
         return new JavaMailSenderImpl();
     }
+
+    @Bean
+    public RecoveryTokenStore recoveryTokenStore(UmConfig umConfig,
+                                                 @Qualifier("umDataSource") DataSource umDataSource) {
+        long ttlMillis = TimeUnit.MINUTES.toMillis(umConfig.getRecoveryTokenTtlMinutes());
+        if ("jdbc".equalsIgnoreCase(umConfig.getRecoveryTokenStore())) {
+            return new JdbcRecoveryTokenStore(umDataSource, ttlMillis, umConfig.getRecoverySweepIntervalSeconds());
+        }
+        return new InMemoryRecoveryTokenStore(umConfig.getRecoveryMaxTokens(), ttlMillis,
+                umConfig.getRecoverySweepIntervalSeconds());
+    }
+
+    @Bean
+    public BanStore banStore(UmConfig umConfig, @Qualifier("umDataSource") DataSource umDataSource) {
+        if ("jdbc".equalsIgnoreCase(umConfig.getAuthBanStore())) {
+            return new JdbcBanStore(umDataSource, TimeUnit.SECONDS.toMillis(umConfig.getAuthBanStoreRefreshSeconds()));
+        }
+        return new LocalBanStore();
+    }
+
+    @Bean
+    public ExpiredUsersPurger expiredUsersPurger(UmConfig umConfig, @Qualifier("umDataSource") DataSource umDataSource,
+                                                 UserCache userCache, UmMetrics umMetrics) {
+        ExpiredUsersPurger purger = new ExpiredUsersPurger(umDataSource, userCache,
+                umConfig.getUsersPurgeIntervalSeconds(), umConfig.getUsersPurgeBatchSize());
+        umMetrics.gauge("um.users.purged", purger::getPurgedCount);
+        return purger;
+    }
 }
@@ -1,44 +1,89 @@
 package io.github.vssavin.umlib.config;
 
+import io.github.vssavin.umlib.metrics.UmMetrics;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
 
 import static io.github.vssavin.umlib.config.RoutingDataSource.DATASOURCE_TYPE;
 import static io.github.vssavin.umlib.config.RoutingDataSource.DATASOURCE_TYPE.UM_DATASOURCE;
 import static io.github.vssavin.umlib.config.RoutingDataSource.DATASOURCE_TYPE.APPLICATION_DATASOURCE;
 
 /**
+ * Switches data source for the current thread only.
+ * Previous keys are kept in a per-thread stack, so nested switches restore the right data source.
+ *
  * Created by vssavin on 25.08.2022.
  */
 @Component
 public class DataSourceSwitcher {
 
     private final AbstractRoutingDataSource routingDataSource;
-    private DATASOURCE_TYPE previousDataSourceKey;
+    private final UmMetrics umMetrics;
+    private final ThreadLocal<Deque<DATASOURCE_TYPE>> previousDataSourceKeys = ThreadLocal.withInitial(ArrayDeque::new);
 
-    public DataSourceSwitcher(AbstractRoutingDataSource routingDataSource) {
+    public DataSourceSwitcher(AbstractRoutingDataSource routingDataSource, UmMetrics umMetrics) {
         this.routingDataSource = routingDataSource;
-        this.previousDataSourceKey = APPLICATION_DATASOURCE;
+        this.umMetrics = umMetrics;
     }
 
     public void switchToUmDataSource() {
-        previousDataSourceKey = ((RoutingDataSource)routingDataSource).getDatasourceKey();
-        ((RoutingDataSource)routingDataSource).setKey(UM_DATASOURCE);
+        RoutingDataSource dataSource = (RoutingDataSource) routingDataSource;
+        previousDataSourceKeys.get().push(dataSource.getDatasourceKey());
+        dataSource.setKey(UM_DATASOURCE);
+        umMetrics.increment("um.dataSource.switches");
     }
 
     public void switchToApplicationDataSource() {
-        previousDataSourceKey = ((RoutingDataSource)routingDataSource).getDatasourceKey();
-        ((RoutingDataSource)routingDataSource).setKey(APPLICATION_DATASOURCE);
-        DataSource ds = ((RoutingDataSource)routingDataSource).determineTargetDataSource();
-        if (ds == null) ((RoutingDataSource)routingDataSource).setKey(previousDataSourceKey);
+        RoutingDataSource dataSource = (RoutingDataSource) routingDataSource;
+        DATASOURCE_TYPE currentKey = dataSource.getDatasourceKey();
+        previousDataSourceKeys.get().push(currentKey);
+        dataSource.setKey(APPLICATION_DATASOURCE);
+        DataSource ds = dataSource.determineTargetDataSource();
+        if (ds == null) dataSource.setKey(currentKey);
+        umMetrics.increment("um.dataSource.switches");
     }
 
     public void switchToPreviousDataSource() {
-        DATASOURCE_TYPE currentKey = ((RoutingDataSource)routingDataSource).getDatasourceKey();
-        ((RoutingDataSource)routingDataSource).setKey(previousDataSourceKey);
-        DataSource ds = ((RoutingDataSource)routingDataSource).determineTargetDataSource();
-        if (ds == null) ((RoutingDataSource)routingDataSource).setKey(currentKey);
+        RoutingDataSource dataSource = (RoutingDataSource) routingDataSource;
+        Deque<DATASOURCE_TYPE> previousKeys = previousDataSourceKeys.get();
+        if (previousKeys.isEmpty()) {
+            previousDataSourceKeys.remove();
+            dataSource.resetKey();
+            return;
+        }
+
+        DATASOURCE_TYPE currentKey = dataSource.getDatasourceKey();
+        DATASOURCE_TYPE previousKey = previousKeys.pop();
+        if (previousKeys.isEmpty()) {
+            previousDataSourceKeys.remove();
+            dataSource.resetKey();
+        } else {
+            dataSource.setKey(previousKey);
+        }
+        DataSource ds = dataSource.determineTargetDataSource();
+        if (ds == null) dataSource.setKey(currentKey);
+    }
+
+    public <T> T executeWithUmDataSource(Supplier<T> supplier) {
+        switchToUmDataSource();
+        try {
+            return supplier.get();
+        } finally {
+            switchToPreviousDataSource();
+        }
+    }
+
+    public void runWithUmDataSource(Runnable runnable) {
+        switchToUmDataSource();
+        try {
+            runnable.run();
+        } finally {
+            switchToPreviousDataSource();
+        }
     }
 }
@@ -1,31 +1,35 @@
 package io.github.vssavin.umlib.config;
 
+import io.github.vssavin.umlib.security.spring.AuthenticationRateLimiter;
 import io.github.vssavin.umlib.security.spring.BannedIpFilter;
+import io.github.vssavin.umlib.security.spring.JwtAuthenticationFilter;
+import io.github.vssavin.umlib.security.spring.JwtTokenService;
 import io.github.vssavin.umlib.service.impl.CustomOAuth2UserService;
 import io.github.vssavin.umlib.utils.AuthorizedUrlPermission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Bean;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.annotation.web.configurers.ExpressionUrlAuthorizationConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.provisioning.JdbcUserDetailsManager;
 import org.springframework.security.web.authentication.AuthenticationFailureHandler;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
 import org.springframework.security.web.authentication.logout.LogoutSuccessHandler;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 
-import javax.sql.DataSource;
 import java.util.List;
 
 /**
  * Created by vssavin on 17.05.2022.
  */
 public class DefaultSecurityConfig extends WebSecurityConfigurerAdapter {
+    private static final Logger log = LoggerFactory.getLogger(DefaultSecurityConfig.class);
 
     public static final String LOGIN_URL = UmConfig.LOGIN_URL;
     public static final String LOGIN_PROCESSING_URL = UmConfig.LOGIN_PROCESSING_URL;
@@ -34,32 +38,33 @@ public class DefaultSecurityConfig extends WebSecurityConfigurerAdapter {
     public static String successUrl = "/index.html";
     public static String adminSuccessUrl = "/um/admin";
 
-    private final DataSource dataSource;
+    private final UmConfig umConfig;
     private final AuthenticationSuccessHandler authSuccessHandler;
     private final AuthenticationFailureHandler authFailureHandler;
     private final AuthenticationProvider authProvider;
     private final LogoutHandler logoutHandler;
     private final CustomOAuth2UserService customOAuth2UserService;
     private final LogoutSuccessHandler logoutSuccessHandler;
-    private final PasswordEncoder passwordEncoder;
     private final OAuth2Config oAuth2Config;
+    private final AuthenticationRateLimiter rateLimiter;
+    private final JwtTokenService tokenService;
 
     @Autowired
-    public DefaultSecurityConfig(UmConfig umConfig, DataSource dataSource,
-                                 AuthenticationSuccessHandler authSuccessHandler,
+    public DefaultSecurityConfig(UmConfig umConfig, AuthenticationSuccessHandler authSuccessHandler,
                                  AuthenticationFailureHandler authFailureHandler, AuthenticationProvider authProvider,
                                  LogoutHandler logoutHandler, CustomOAuth2UserService customOAuth2UserService,
-                                 LogoutSuccessHandler logoutSuccessHandler, PasswordEncoder passwordEncoder,
-                                 OAuth2Config oAuth2Config) {
-        this.dataSource = dataSource;
+                                 LogoutSuccessHandler logoutSuccessHandler, OAuth2Config oAuth2Config,
+                                 AuthenticationRateLimiter rateLimiter, JwtTokenService tokenService) {
+        this.umConfig = umConfig;
         this.authSuccessHandler = authSuccessHandler;
         this.authFailureHandler = authFailureHandler;
         this.authProvider = authProvider;
         this.logoutHandler = logoutHandler;
         this.customOAuth2UserService = customOAuth2UserService;
         this.logoutSuccessHandler = logoutSuccessHandler;
-        this.passwordEncoder = passwordEncoder;
         this.oAuth2Config = oAuth2Config;
+        this.rateLimiter = rateLimiter;
+        this.tokenService = tokenService;
         UmConfig.adminSuccessUrl = adminSuccessUrl;
         UmConfig.successUrl = successUrl;
         umConfig.updateAuthorizedPermissions();
@@ -68,32 +73,23 @@ public class DefaultSecurityConfig extends WebSecurityConfigurerAdapter {
     @Override
     protected void configure(AuthenticationManagerBuilder auth) throws Exception {
         auth.authenticationProvider(authProvider);
-        auth.jdbcAuthentication()
-                .dataSource(dataSource)
-                .passwordEncoder(passwordEncoder)
-                .usersByUsernameQuery(
-                        "select login, password, 'true' from users " +
-                                "where login=?")
-                .authoritiesByUsernameQuery(
-                        "select login, authority from users " +
-                                "where login=?");
-    }
-
-    @Bean
-    public JdbcUserDetailsManager jdbcUserDetailsManager() {
-        JdbcUserDetailsManager jdbcUserDetailsManager = new JdbcUserDetailsManager();
-        jdbcUserDetailsManager.setDataSource(dataSource);
-        return jdbcUserDetailsManager;
     }
 
     @Override
     protected void configure(HttpSecurity http) throws Exception {
 
         http.addFilterBefore(
-                new BannedIpFilter(), BasicAuthenticationFilter.class);
-
-        http.sessionManagement()
-                .sessionCreationPolicy(SessionCreationPolicy.ALWAYS);
+                new BannedIpFilter(rateLimiter), BasicAuthenticationFilter.class);
+
+        if (umConfig.isStatelessSession()) {
+            http.sessionManagement()
+                    .sessionCreationPolicy(SessionCreationPolicy.STATELESS);
+            http.csrf().csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse());
+            http.addFilterBefore(new JwtAuthenticationFilter(tokenService), UsernamePasswordAuthenticationFilter.class);
+        } else {
+            http.sessionManagement()
+                    .sessionCreationPolicy(getSessionCreationPolicy(umConfig.getSessionCreationPolicy()));
+        }
 
         List<AuthorizedUrlPermission> urlPermissions = UmConfig.getAuthorizedUrlPermissions();
 
@@ -117,7 +113,7 @@ public class DefaultSecurityConfig extends WebSecurityConfigurerAdapter {
                 .logoutUrl(LOGOUT_URL)
                 .addLogoutHandler(logoutHandler)
                 .logoutSuccessHandler(logoutSuccessHandler)
-                .deleteCookies("JSESSIONID");
+                .deleteCookies("JSESSIONID", tokenService.getCookieName());
 
         if (!"".equals(oAuth2Config.getGoogleClientId())) {
             registry.and()
@@ -138,6 +134,15 @@ public class DefaultSecurityConfig extends WebSecurityConfigurerAdapter {
         DefaultSecurityConfig.adminSuccessUrl = adminSuccessUrl;
     }
 
+    private static SessionCreationPolicy getSessionCreationPolicy(String policyName) {
+        try {
+            return SessionCreationPolicy.valueOf(policyName.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown session creation policy: {}, IF_REQUIRED is used", policyName);
+            return SessionCreationPolicy.IF_REQUIRED;
+        }
+    }
+
     private ExpressionUrlAuthorizationConfigurer<HttpSecurity>.ExpressionInterceptUrlRegistry registerUrls(
             HttpSecurity http, List<AuthorizedUrlPermission> urlPermissions) throws Exception {
 
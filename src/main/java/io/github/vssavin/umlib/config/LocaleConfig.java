@@ -1,17 +1,24 @@
 package io.github.vssavin.umlib.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.NoSuchMessageException;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author vssavin on 27.12.21
  */
 @Configuration
 public class LocaleConfig {
+    private static final Logger log = LoggerFactory.getLogger(LocaleConfig.class);
     private static final String DEFAULT_LANGUAGE = "ru";
     public static final Locale DEFAULT_LOCALE = Locale.forLanguageTag(DEFAULT_LANGUAGE);
     public static final Map<String, String> AVAILABLE_LANGUAGES = new LinkedHashMap<>();
@@ -20,6 +27,7 @@ public class LocaleConfig {
 
 
     private static final Map<String, LocaleSpringMessageSource> messageSourceMap = new HashMap<>();
+    private static final Map<String, Map<String, String>> pageMessagesMap = new ConcurrentHashMap<>();
 
     static {
         LANGUAGE_NAMES.put("en", "English");
@@ -91,11 +99,69 @@ public class LocaleConfig {
     }
 
     public static String getMessage(String page, String key, String localeString) {
-        LocaleSpringMessageSource messageSource = messageSourceMap.get(page);
         String locale = localeString == null ? DEFAULT_LANGUAGE : localeString;
+        Map<String, String> pageMessages = getCachedPageMessages(page, locale);
+        String message = pageMessages != null ? pageMessages.get(key) : null;
+        if (message != null) return message;
+        LocaleSpringMessageSource messageSource = messageSourceMap.get(page);
         return messageSource.getMessage(key, new Object[]{}, Locale.forLanguageTag(locale));
     }
 
+    /**
+     * Returns immutable map of all messages of the page for the specified language.
+     * Maps of available languages are built once, maps of other languages are built on every call.
+     */
+    public static Map<String, String> getPageMessages(String page, String localeString) {
+        String locale = localeString == null ? DEFAULT_LANGUAGE : localeString;
+        Map<String, String> pageMessages = getCachedPageMessages(page, locale);
+        if (pageMessages != null) return pageMessages;
+        LocaleSpringMessageSource messageSource = messageSourceMap.get(page);
+        return messageSource != null ? buildPageMessages(messageSource, locale) : Collections.emptyMap();
+    }
+
+    /**
+     * Drops precomputed messages, so changed message files are read again.
+     */
+    public static void refreshMessages() {
+        messageSourceMap.values().forEach(ReloadableResourceBundleMessageSource::clearCache);
+        pageMessagesMap.clear();
+        precomputePageMessages();
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed() {
+        precomputePageMessages();
+    }
+
+    private static void precomputePageMessages() {
+        for (String page : messageSourceMap.keySet()) {
+            for (String locale : AVAILABLE_LANGUAGES.keySet()) {
+                getCachedPageMessages(page, locale);
+            }
+        }
+        log.debug("Page messages precomputed: {}", pageMessagesMap.size());
+    }
+
+    private static Map<String, String> getCachedPageMessages(String page, String locale) {
+        if (!AVAILABLE_LANGUAGES.containsKey(locale)) return null;
+        LocaleSpringMessageSource messageSource = messageSourceMap.get(page);
+        if (messageSource == null) return null;
+        return pageMessagesMap.computeIfAbsent(page + ":" + locale, key -> buildPageMessages(messageSource, locale));
+    }
+
+    private static Map<String, String> buildPageMessages(LocaleSpringMessageSource messageSource, String locale) {
+        Locale requestedLocale = Locale.forLanguageTag(locale);
+        Map<String, String> messages = new HashMap<>();
+        for (String key : messageSource.getKeys()) {
+            try {
+                messages.put(key, messageSource.getMessage(key, new Object[]{}, requestedLocale));
+            } catch (NoSuchMessageException e) {
+                //ignore, message will be resolved by message source
+            }
+        }
+        return Collections.unmodifiableMap(messages);
+    }
+
     @Bean
     public LocaleSpringMessageSource adminMessageSource() {
         return createMessageSource("admin");
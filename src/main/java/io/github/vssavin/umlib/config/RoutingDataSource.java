@@ -16,15 +16,25 @@ class RoutingDataSource extends AbstractRoutingDataSource {
         APPLICATION_DATASOURCE
     }
 
-    private DATASOURCE_TYPE datasourceKey = DATASOURCE_TYPE.APPLICATION_DATASOURCE;
+    private volatile DATASOURCE_TYPE defaultKey = DATASOURCE_TYPE.APPLICATION_DATASOURCE;
+    private final ThreadLocal<DATASOURCE_TYPE> datasourceKey = new ThreadLocal<>();
     private final Map<Object,Object> dataSources = new HashMap<>();
 
     void setKey(DATASOURCE_TYPE key){
-        this.datasourceKey = key;
+        this.datasourceKey.set(key);
+    }
+
+    void resetKey() {
+        this.datasourceKey.remove();
+    }
+
+    void setDefaultKey(DATASOURCE_TYPE defaultKey) {
+        this.defaultKey = defaultKey;
     }
 
     public DATASOURCE_TYPE getDatasourceKey() {
-        return datasourceKey;
+        DATASOURCE_TYPE key = datasourceKey.get();
+        return key != null ? key : defaultKey;
     }
 
     RoutingDataSource() {
@@ -37,11 +47,11 @@ class RoutingDataSource extends AbstractRoutingDataSource {
 
     @Override
     protected Object determineCurrentLookupKey() {
-        return datasourceKey;
+        return getDatasourceKey();
     }
 
     @Override
     protected DataSource determineTargetDataSource() {
-        return (DataSource) dataSources.get(datasourceKey);
+        return (DataSource) dataSources.get(getDatasourceKey());
     }
 }
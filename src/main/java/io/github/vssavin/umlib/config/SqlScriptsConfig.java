@@ -1,23 +1,17 @@
 package io.github.vssavin.umlib.config;
 
-import org.apache.ibatis.jdbc.ScriptRunner;
+import io.github.vssavin.umlib.migration.MigrationRunner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
-import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.sql.Connection;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Stream;
 
 /**
  * Created by vssavin on 16.05.2022.
@@ -25,97 +19,72 @@ import java.util.stream.Stream;
 @Component
 public class SqlScriptsConfig {
     public static final String SCRIPTS_DEFAULT_DIRECTORY = "sqlScripts";
+    public static final String MIGRATIONS_DIRECTORY = "db/migration";
     private static final Logger log = LoggerFactory.getLogger(SqlScriptsConfig.class);
 
     @Autowired
     public SqlScriptsConfig(@Qualifier("umDataSource") DataSource umDataSource) {
         ArrayList<String> sqlFiles = new ArrayList<>();
         sqlFiles.add("/init.sql");
-        executeSqlScripts(umDataSource, SCRIPTS_DEFAULT_DIRECTORY, sqlFiles);
+        executeSqlScripts(umDataSource, "", sqlFiles);
+        applyMigrations(umDataSource);
+        executeSqlScripts(umDataSource, SCRIPTS_DEFAULT_DIRECTORY, new ArrayList<>());
     }
 
+    /**
+     * Applies versioned scripts (V&lt;version&gt;__&lt;description&gt;.sql) from the common and the database vendor
+     * directories (e.g. db/migration/postgresql), which are not applied yet.
+     */
+    public void applyMigrations(DataSource dataSource) {
+        try {
+            int applied = new MigrationRunner(dataSource).migrate(MIGRATIONS_DIRECTORY);
+            if (applied > 0) {
+                log.info("Applied migrations: " + applied);
+            }
+        } catch (Exception e) {
+            log.error("Applying migrations error: ", e);
+        }
+    }
+
+    /**
+     * Executes sql scripts from the classpath directory and the specified classpath files,
+     * which are not executed yet or have been changed since the last execution.
+     */
     public void executeSqlScripts(DataSource dataSource, String scriptsDirectory, List<String> sourceFiles) {
-        Map<String, InputStream> fileStreams = new HashMap<>();
+        MigrationRunner migrationRunner = new MigrationRunner(dataSource);
+        List<Resource> resources = new ArrayList<>();
 
         if (!scriptsDirectory.isEmpty()) {
-            Path path = null;
             try {
-                path = Paths.get(getClass().getClassLoader().getResource(scriptsDirectory).toURI());
+                resources.addAll(Arrays.asList(
+                        migrationRunner.getResources("classpath*:" + scriptsDirectory + "/**/*.sql")));
             } catch (Exception e) {
                 log.warn("Directory " + scriptsDirectory + " not found!");
             }
-
-            if (path != null) {
-                try (Stream<Path> paths = Files.walk(path)) {
-                    paths
-                            .filter(Files::isRegularFile)
-                            .filter(p -> p.getFileName().toString().endsWith(".sql"))
-                            .forEach(p -> {
-                                try {
-                                    fileStreams.put(p.getFileName().toString(),
-                                            new FileInputStream(new File(p.toUri())));
-                                } catch (FileNotFoundException e) {
-                                    log.error("File not found: file = " + p.getFileName());
-                                }
-                            });
-                } catch (Exception e) {
-                    log.error("Searching sql files error: ", e);
-                }
-            }
         }
 
         for (String sourceFile : sourceFiles) {
-            InputStream resourceStream;
             if (sourceFile.endsWith(".sql")) {
                 try {
-                    resourceStream = getClass().getResourceAsStream(sourceFile);
-                    if (resourceStream == null) {
+                    Resource resource = migrationRunner.getResources("classpath:" + sourceFile)[0];
+                    if (!resource.exists()) {
                         log.warn("Resource is null! File: " + sourceFile);
                     } else {
-                        fileStreams.put(sourceFile, resourceStream);
+                        resources.add(resource);
                     }
 
                 } catch (Exception e) {
-                    log.error("Getting resource stream error: file = " + sourceFile, e);
+                    log.error("Getting resource error: file = " + sourceFile, e);
                 }
             } else {
                 log.warn("Resource: " + sourceFile + " is not sql file!");
             }
-
         }
 
-        fileStreams.forEach((file, inputStream) -> {
-            log.debug("Processing sql file: " + file);
-            executeSqlScript(new InputStreamReader(inputStream), dataSource);
-            try {
-                inputStream.close();
-            } catch (IOException e) {
-                log.error("Close input stream error! File = " + file, e);
-            }
-        } );
-    }
-
-    private void executeSqlScript(Reader reader, DataSource dataSource) {
-        StringWriter logWriter = new StringWriter();
-        try(Reader innerReader = reader) {
-            Connection connection = dataSource.getConnection();
-            ScriptRunner scriptRunner = new ScriptRunner(connection);
-            StringWriter errorWriter = new StringWriter();
-            scriptRunner.setLogWriter(new PrintWriter(logWriter));
-            scriptRunner.setErrorLogWriter(new PrintWriter(errorWriter));
-            scriptRunner.runScript(innerReader);
-            if (!logWriter.toString().isEmpty()) {
-                log.debug(logWriter.toString());
-            }
-            if (!errorWriter.toString().isEmpty()) {
-                throw new RuntimeException("Executing script error: " + errorWriter);
-            }
-
+        try {
+            migrationRunner.applyScripts(scriptsDirectory, resources);
         } catch (Exception e) {
-            if (!logWriter.toString().isEmpty()) {
-                log.debug(logWriter.toString());
-            }
-            log.error("Executing init script error: ", e);
+            log.error("Executing sql scripts error: ", e);
         }
     }
 }
@@ -33,6 +33,132 @@ public class UmConfig extends StorableConfig{
     @Value("${um.login.title:}")
     private String loginTitle;
 
+    @Value("${um.userCache.maxSize:1000}")
+    private int userCacheMaxSize;
+
+    @Value("${um.userCache.ttlSeconds:300}")
+    private long userCacheTtlSeconds;
+
+    @Value("${um.recovery.store:memory}")
+    private String recoveryTokenStore;
+
+    @Value("${um.recovery.maxTokens:10000}")
+    private int recoveryMaxTokens;
+
+    @Value("${um.recovery.ttlMinutes:1440}")
+    private long recoveryTokenTtlMinutes;
+
+    @Value("${um.recovery.sweepIntervalSeconds:60}")
+    private long recoverySweepIntervalSeconds;
+
+    //in async mode sending errors are only logged, the caller gets an error only if the email is not queued
+    @Value("${um.email.async:true}")
+    private boolean emailAsync;
+
+    @Value("${um.email.queueCapacity:1000}")
+    private int emailQueueCapacity;
+
+    @Value("${um.email.workers:2}")
+    private int emailWorkers;
+
+    @Value("${um.email.batchSize:20}")
+    private int emailBatchSize;
+
+    @Value("${um.email.maxAttempts:5}")
+    private int emailMaxAttempts;
+
+    @Value("${um.email.retryDelayMillis:1000}")
+    private long emailRetryDelayMillis;
+
+    @Value("${um.email.outbox:false}")
+    private boolean emailOutboxEnabled;
+
+    @Value("${um.email.outboxPollSeconds:60}")
+    private long emailOutboxPollSeconds;
+
+    @Value("${um.auth.maxFailures:3}")
+    private int authMaxFailures;
+
+    @Value("${um.auth.failureWindowSeconds:600}")
+    private long authFailureWindowSeconds;
+
+    @Value("${um.auth.banSeconds:3600}")
+    private long authBanSeconds;
+
+    @Value("${um.auth.maxTrackedAddresses:100000}")
+    private int authMaxTrackedAddresses;
+
+    @Value("${um.auth.banStore:local}")
+    private String authBanStore;
+
+    @Value("${um.auth.banStoreRefreshSeconds:5}")
+    private long authBanStoreRefreshSeconds;
+
+    @Value("${um.passwordEncoder.mode:bcrypt}")
+    private String passwordEncoderMode;
+
+    @Value("${um.passwordEncoder.strength:10}")
+    private int passwordEncoderStrength;
+
+    @Value("${um.passwordEncoder.threads:0}")
+    private int passwordEncoderThreads;
+
+    @Value("${um.passwordEncoder.queueCapacity:100}")
+    private int passwordEncoderQueueCapacity;
+
+    @Value("${um.passwordEncoder.timeoutMillis:10000}")
+    private long passwordEncoderTimeoutMillis;
+
+    @Value("${um.users.pagination:offset}")
+    private String usersPagination;
+
+    @Value("${um.users.approximateCount:false}")
+    private boolean usersApproximateCount;
+
+    @Value("${um.users.approximateCountTtlSeconds:60}")
+    private long usersApproximateCountTtlSeconds;
+
+    @Value("${um.users.purge.intervalSeconds:3600}")
+    private long usersPurgeIntervalSeconds;
+
+    @Value("${um.users.purge.batchSize:500}")
+    private int usersPurgeBatchSize;
+
+    @Value("${um.metrics.enabled:false}")
+    private boolean metricsEnabled;
+
+    @Value("${um.secureKey.cacheMaxSize:10000}")
+    private int secureKeyCacheMaxSize;
+
+    @Value("${um.secureKey.cacheTtlSeconds:60}")
+    private long secureKeyCacheTtlSeconds;
+
+    @Value("${um.secureKey.rotationSeconds:600}")
+    private long secureKeyRotationSeconds;
+
+    //replaced key is accepted for forms opened before the rotation
+    @Value("${um.secureKey.graceSeconds:1800}")
+    private long secureKeyGraceSeconds;
+
+    @Value("${um.secureKey.poolSize:16}")
+    private int secureKeyPoolSize;
+
+    @Value("${um.session.mode:session}")
+    private String sessionMode;
+
+    @Value("${um.session.creationPolicy:IF_REQUIRED}")
+    private String sessionCreationPolicy;
+
+    @Value("${um.jwt.secret:}")
+    private String jwtSecret;
+
+    //token is not revoked by logout, it is revoked only by deletion of the user, change of the password or authority
+    @Value("${um.jwt.ttlSeconds:900}")
+    private long jwtTtlSeconds;
+
+    @Value("${um.jwt.cookieName:UM_TOKEN}")
+    private String jwtCookieName;
+
     private static final List<AuthorizedUrlPermission> authorizedUrlPermissions = new ArrayList<>();
 
     private boolean permissionsUpdated = false;
@@ -75,6 +201,177 @@ public class UmConfig extends StorableConfig{
         return loginTitle;
     }
 
+    public int getUserCacheMaxSize() {
+        return userCacheMaxSize;
+    }
+
+    public long getUserCacheTtlSeconds() {
+        return userCacheTtlSeconds;
+    }
+
+    public String getRecoveryTokenStore() {
+        return recoveryTokenStore;
+    }
+
+    public int getRecoveryMaxTokens() {
+        return recoveryMaxTokens;
+    }
+
+    public long getRecoveryTokenTtlMinutes() {
+        return recoveryTokenTtlMinutes;
+    }
+
+    public long getRecoverySweepIntervalSeconds() {
+        return recoverySweepIntervalSeconds;
+    }
+
+    public boolean isEmailAsync() {
+        return emailAsync;
+    }
+
+    public int getEmailQueueCapacity() {
+        return emailQueueCapacity;
+    }
+
+    public int getEmailWorkers() {
+        return emailWorkers;
+    }
+
+    public int getEmailBatchSize() {
+        return emailBatchSize;
+    }
+
+    public int getEmailMaxAttempts() {
+        return emailMaxAttempts;
+    }
+
+    public long getEmailRetryDelayMillis() {
+        return emailRetryDelayMillis;
+    }
+
+    public boolean isEmailOutboxEnabled() {
+        return emailOutboxEnabled;
+    }
+
+    public long getEmailOutboxPollSeconds() {
+        return emailOutboxPollSeconds;
+    }
+
+    public int getAuthMaxFailures() {
+        return authMaxFailures;
+    }
+
+    public long getAuthFailureWindowSeconds() {
+        return authFailureWindowSeconds;
+    }
+
+    public long getAuthBanSeconds() {
+        return authBanSeconds;
+    }
+
+    public int getAuthMaxTrackedAddresses() {
+        return authMaxTrackedAddresses;
+    }
+
+    public String getAuthBanStore() {
+        return authBanStore;
+    }
+
+    public long getAuthBanStoreRefreshSeconds() {
+        return authBanStoreRefreshSeconds;
+    }
+
+    /**
+     * @return true if password hashes are stored with algorithm id prefix, e.g. {bcrypt}
+     */
+    public boolean isPasswordEncoderDelegating() {
+        return "delegating".equalsIgnoreCase(passwordEncoderMode);
+    }
+
+    public int getPasswordEncoderStrength() {
+        return passwordEncoderStrength;
+    }
+
+    public int getPasswordEncoderThreads() {
+        return passwordEncoderThreads;
+    }
+
+    public int getPasswordEncoderQueueCapacity() {
+        return passwordEncoderQueueCapacity;
+    }
+
+    public long getPasswordEncoderTimeoutMillis() {
+        return passwordEncoderTimeoutMillis;
+    }
+
+    public boolean isUsersKeysetPagination() {
+        return "keyset".equalsIgnoreCase(usersPagination);
+    }
+
+    public boolean isUsersApproximateCount() {
+        return usersApproximateCount;
+    }
+
+    public long getUsersApproximateCountTtlSeconds() {
+        return usersApproximateCountTtlSeconds;
+    }
+
+    public long getUsersPurgeIntervalSeconds() {
+        return usersPurgeIntervalSeconds;
+    }
+
+    public int getUsersPurgeBatchSize() {
+        return usersPurgeBatchSize;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public int getSecureKeyCacheMaxSize() {
+        return secureKeyCacheMaxSize;
+    }
+
+    public long getSecureKeyCacheTtlSeconds() {
+        return secureKeyCacheTtlSeconds;
+    }
+
+    public long getSecureKeyRotationSeconds() {
+        return secureKeyRotationSeconds;
+    }
+
+    public long getSecureKeyGraceSeconds() {
+        return secureKeyGraceSeconds;
+    }
+
+    public int getSecureKeyPoolSize() {
+        return secureKeyPoolSize;
+    }
+
+    public String getSessionMode() {
+        return sessionMode;
+    }
+
+    public boolean isStatelessSession() {
+        return "stateless".equalsIgnoreCase(sessionMode);
+    }
+
+    public String getSessionCreationPolicy() {
+        return sessionCreationPolicy;
+    }
+
+    public String getJwtSecret() {
+        return jwtSecret;
+    }
+
+    public long getJwtTtlSeconds() {
+        return jwtTtlSeconds;
+    }
+
+    public String getJwtCookieName() {
+        return jwtCookieName;
+    }
+
     public void updateAuthorizedPermissions() {
         if (!permissionsUpdated) {
             if (!registrationAllowed) {
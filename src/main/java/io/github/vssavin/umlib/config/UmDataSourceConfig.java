@@ -1,5 +1,7 @@
 package io.github.vssavin.umlib.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +21,7 @@ public class UmDataSourceConfig {
 
     private final UmDatabaseConfig umDatabaseConfig;
     private DataSource umDataSource;
+    private UmDataSourcePoolMetrics poolMetrics;
 
     public UmDataSourceConfig(UmDatabaseConfig umDatabaseConfig) {
         this.umDatabaseConfig = umDatabaseConfig;
@@ -27,15 +30,15 @@ public class UmDataSourceConfig {
     @Bean
     protected DataSource umDataSource(){
         if (this.umDataSource != null) return this.umDataSource;
+        if (umDatabaseConfig.isPoolEnabled()) {
+            this.umDataSource = createPooledDataSource();
+            return this.umDataSource;
+        }
+
         DriverManagerDataSource dataSource = new DriverManagerDataSource();
         try {
             dataSource.setDriverClassName(umDatabaseConfig.getDriverClass());
-            String url = umDatabaseConfig.getUrl() + "/"
-                    + umDatabaseConfig.getName();
-            if (umDatabaseConfig.getDriverClass().equals("org.h2.Driver")) {
-                url += ";" + umDatabaseConfig.getAdditionalParams();
-            }
-            dataSource.setUrl(url);
+            dataSource.setUrl(getJdbcUrl());
             dataSource.setUsername(umDatabaseConfig.getUser());
             dataSource.setPassword(umDatabaseConfig.getPassword());
         } catch (Exception e) {
@@ -46,6 +49,46 @@ public class UmDataSourceConfig {
         return dataSource;
     }
 
+    @Bean
+    UmDataSourcePoolMetrics umDataSourcePoolMetrics() {
+        if (this.poolMetrics != null) return this.poolMetrics;
+        this.poolMetrics = new UmDataSourcePoolMetrics();
+        return this.poolMetrics;
+    }
+
+    private DataSource createPooledDataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("um-pool");
+        config.setDriverClassName(umDatabaseConfig.getDriverClass());
+        config.setJdbcUrl(getJdbcUrl());
+        config.setUsername(umDatabaseConfig.getUser());
+        config.setPassword(umDatabaseConfig.getPassword());
+        config.setMaximumPoolSize(umDatabaseConfig.getPoolMaxSize());
+        config.setMinimumIdle(umDatabaseConfig.getPoolMinIdle());
+        config.setIdleTimeout(umDatabaseConfig.getPoolIdleTimeout());
+        config.setMaxLifetime(umDatabaseConfig.getPoolMaxLifetime());
+        config.setConnectionTimeout(umDatabaseConfig.getPoolConnectionTimeout());
+        String validationQuery = umDatabaseConfig.getPoolValidationQuery();
+        if (validationQuery != null && !validationQuery.isEmpty()) {
+            config.setConnectionTestQuery(validationQuery);
+        }
+        config.setMetricsTrackerFactory(umDataSourcePoolMetrics());
+        //don't fail application startup if database is temporarily unavailable
+        config.setInitializationFailTimeout(-1);
+        log.info("Creating pooled datasource: maxSize = {}, minIdle = {}",
+                umDatabaseConfig.getPoolMaxSize(), umDatabaseConfig.getPoolMinIdle());
+        return new HikariDataSource(config);
+    }
+
+    private String getJdbcUrl() {
+        String url = umDatabaseConfig.getUrl() + "/"
+                + umDatabaseConfig.getName();
+        if (umDatabaseConfig.getDriverClass().equals("org.h2.Driver")) {
+            url += ";" + umDatabaseConfig.getAdditionalParams();
+        }
+        return url;
+    }
+
     @Bean
     AbstractRoutingDataSource routingDataSource(@Autowired(required = false)
                                                 @Qualifier("appDataSource") DataSource appDataSource,
@@ -60,7 +103,7 @@ public class UmDataSourceConfig {
             routingDataSource.setDefaultTargetDataSource(ds);
         }
         if (ds == null) {
-            routingDataSource.setKey(RoutingDataSource.DATASOURCE_TYPE.UM_DATASOURCE);
+            routingDataSource.setDefaultKey(RoutingDataSource.DATASOURCE_TYPE.UM_DATASOURCE);
             routingDataSource.setDefaultTargetDataSource(umDataSource);
         }
         return routingDataSource;
@@ -0,0 +1,97 @@
+package io.github.vssavin.umlib.config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects state of the pooled um data source: active and idle connections, waiting threads
+ * and time spent waiting for a connection.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class UmDataSourcePoolMetrics implements MetricsTrackerFactory {
+
+    private volatile PoolStats poolStats;
+
+    private final LongAdder acquiredCount = new LongAdder();
+    private final LongAdder acquiredNanos = new LongAdder();
+    private final AtomicLong maxAcquiredNanos = new AtomicLong();
+    private final LongAdder timeoutCount = new LongAdder();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquiredCount.increment();
+                acquiredNanos.add(elapsedAcquiredNanos);
+                maxAcquiredNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeoutCount.increment();
+            }
+        };
+    }
+
+    public boolean isPoolStarted() {
+        return poolStats != null;
+    }
+
+    public int getActiveConnections() {
+        PoolStats stats = poolStats;
+        return stats != null ? stats.getActiveConnections() : 0;
+    }
+
+    public int getIdleConnections() {
+        PoolStats stats = poolStats;
+        return stats != null ? stats.getIdleConnections() : 0;
+    }
+
+    public int getTotalConnections() {
+        PoolStats stats = poolStats;
+        return stats != null ? stats.getTotalConnections() : 0;
+    }
+
+    public int getPendingThreads() {
+        PoolStats stats = poolStats;
+        return stats != null ? stats.getPendingThreads() : 0;
+    }
+
+    public long getAcquiredConnectionsCount() {
+        return acquiredCount.sum();
+    }
+
+    public double getAverageWaitTimeMillis() {
+        long count = acquiredCount.sum();
+        return count == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMicros(acquiredNanos.sum()) / count / 1000;
+    }
+
+    public long getMaxWaitTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxAcquiredNanos.get());
+    }
+
+    public long getConnectionTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "UmDataSourcePoolMetrics{" +
+                "active=" + getActiveConnections() +
+                ", idle=" + getIdleConnections() +
+                ", total=" + getTotalConnections() +
+                ", pending=" + getPendingThreads() +
+                ", averageWaitTimeMillis=" + getAverageWaitTimeMillis() +
+                ", maxWaitTimeMillis=" + getMaxWaitTimeMillis() +
+                ", timeouts=" + getConnectionTimeoutCount() +
+                '}';
+    }
+}
@@ -33,6 +33,27 @@ public class UmDatabaseConfig {
     @Value("${um.db.additionalParams}")
     private String additionalParams;
 
+    @Value("${um.db.pool.enabled:false}")
+    private boolean poolEnabled;
+
+    @Value("${um.db.pool.maxSize:10}")
+    private int poolMaxSize;
+
+    @Value("${um.db.pool.minIdle:2}")
+    private int poolMinIdle;
+
+    @Value("${um.db.pool.idleTimeout:600000}")
+    private long poolIdleTimeout;
+
+    @Value("${um.db.pool.maxLifetime:1800000}")
+    private long poolMaxLifetime;
+
+    @Value("${um.db.pool.connectionTimeout:30000}")
+    private long poolConnectionTimeout;
+
+    @Value("${um.db.pool.validationQuery:}")
+    private String poolValidationQuery;
+
     public String getUrl() {
         return url;
     }
@@ -88,4 +109,60 @@ public class UmDatabaseConfig {
     public void setAdditionalParams(String additionalParams) {
         this.additionalParams = additionalParams;
     }
+
+    public boolean isPoolEnabled() {
+        return poolEnabled;
+    }
+
+    public void setPoolEnabled(boolean poolEnabled) {
+        this.poolEnabled = poolEnabled;
+    }
+
+    public int getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
+    public void setPoolMaxSize(int poolMaxSize) {
+        this.poolMaxSize = poolMaxSize;
+    }
+
+    public int getPoolMinIdle() {
+        return poolMinIdle;
+    }
+
+    public void setPoolMinIdle(int poolMinIdle) {
+        this.poolMinIdle = poolMinIdle;
+    }
+
+    public long getPoolIdleTimeout() {
+        return poolIdleTimeout;
+    }
+
+    public void setPoolIdleTimeout(long poolIdleTimeout) {
+        this.poolIdleTimeout = poolIdleTimeout;
+    }
+
+    public long getPoolMaxLifetime() {
+        return poolMaxLifetime;
+    }
+
+    public void setPoolMaxLifetime(long poolMaxLifetime) {
+        this.poolMaxLifetime = poolMaxLifetime;
+    }
+
+    public long getPoolConnectionTimeout() {
+        return poolConnectionTimeout;
+    }
+
+    public void setPoolConnectionTimeout(long poolConnectionTimeout) {
+        this.poolConnectionTimeout = poolConnectionTimeout;
+    }
+
+    public String getPoolValidationQuery() {
+        return poolValidationQuery;
+    }
+
+    public void setPoolValidationQuery(String poolValidationQuery) {
+        this.poolValidationQuery = poolValidationQuery;
+    }
 }
@@ -5,19 +5,27 @@ import io.github.vssavin.umlib.config.LocaleConfig;
 import io.github.vssavin.umlib.config.UmConfig;
 import io.github.vssavin.umlib.dto.UserDto;
 import io.github.vssavin.umlib.dto.UserFilter;
+import io.github.vssavin.umlib.dto.UserImportFormat;
+import io.github.vssavin.umlib.dto.UserImportResult;
+import io.github.vssavin.umlib.dto.UserView;
 import io.github.vssavin.umlib.entity.Role;
 import io.github.vssavin.umlib.entity.User;
-import io.github.vssavin.umlib.exception.EmailNotFoundException;
+import io.github.vssavin.umlib.exception.EmailExistsException;
 import io.github.vssavin.umlib.exception.UserExistsException;
 import io.github.vssavin.umlib.helper.SecurityHelper;
 import io.github.vssavin.umlib.helper.ValidatingHelper;
 import io.github.vssavin.umlib.language.UmLanguage;
+import io.github.vssavin.umlib.pagination.KeysetPaged;
 import io.github.vssavin.umlib.pagination.Paged;
 import io.github.vssavin.umlib.service.SecureService;
 import io.github.vssavin.umlib.service.UserService;
+import io.github.vssavin.umlib.service.impl.SecureKeyManager;
 import io.github.vssavin.umlib.utils.UmUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.ui.Model;
@@ -26,6 +34,9 @@ import org.springframework.web.servlet.ModelAndView;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -49,6 +60,8 @@ public class AdminController {
 
     private static final String PERFORM_REGISTER_MAPPING = "/perform-register";
     private static final String PERFORM_CHANGE_USER_PASSWORD = "/perform-change-user-password";
+    private static final String USERS_IMPORT_MAPPING = "/" + PAGE_USERS + "/import";
+    private static final String USERS_EXPORT_MAPPING = "/" + PAGE_USERS + "/export";
 
     private static final Set<String> IGNORED_PARAMS = new HashSet<>();
 
@@ -67,10 +80,13 @@ public class AdminController {
 
     private final UserService userService;
     private final SecureService secureService;
+    private final SecureKeyManager secureKeyManager;
     private final PasswordEncoder passwordEncoder;
     private final UmLanguage language;
+    private final UmConfig umConfig;
 
-    public AdminController(UserService userService, UmUtil applicationUtil, PasswordEncoder passwordEncoder,
+    public AdminController(UserService userService, UmUtil applicationUtil, SecureKeyManager secureKeyManager,
+                           PasswordEncoder passwordEncoder,
                            LocaleConfig.LocaleSpringMessageSource loginMessageSource,
                            LocaleConfig.LocaleSpringMessageSource usersMessageSource,
                            LocaleConfig.LocaleSpringMessageSource userEditMessageSource,
@@ -78,9 +94,10 @@ public class AdminController {
                            LocaleConfig.LocaleSpringMessageSource registrationMessageSource,
                            LocaleConfig.LocaleSpringMessageSource changeUserPasswordMessageSource,
                            LocaleConfig.LocaleSpringMessageSource adminConfirmUserMessageSource,
-                           UmLanguage language) {
+                           UmLanguage language, UmConfig umConfig) {
         this.userService = userService;
         this.secureService = applicationUtil.getAuthService();
+        this.secureKeyManager = secureKeyManager;
         this.passwordEncoder = passwordEncoder;
         pageLoginParams = loginMessageSource.getKeys();
         pageUsersParams = usersMessageSource.getKeys();
@@ -90,6 +107,7 @@ public class AdminController {
         pageChangeUserPasswordParams = changeUserPasswordMessageSource.getKeys();
         this.pageAdminConfirmUserParams = adminConfirmUserMessageSource.getKeys();
         this.language = language;
+        this.umConfig = umConfig;
     }
 
     @GetMapping()
@@ -181,9 +199,8 @@ public class AdminController {
         }
 
         try {
-            String key = secureService.getSecureKey(request.getRemoteAddr());
-            String decodedPassword = secureService.decrypt(password, key);
-            String decodedConfirmPassword = secureService.decrypt(confirmPassword, key);
+            String decodedPassword = secureKeyManager.decrypt(request, password);
+            String decodedConfirmPassword = secureKeyManager.decrypt(request, confirmPassword);
             if (!decodedPassword.equals(decodedConfirmPassword)) {
                 modelAndView = getErrorModelAndView(PAGE_REGISTRATION,
                         MessageKeys.PASSWORDS_MUST_BE_IDENTICAL_MESSAGE.getMessageKey(), lang);
@@ -202,22 +219,18 @@ public class AdminController {
                 return modelAndView;
             }
 
-            try {
-                userService.getUserByEmail(email);
-                modelAndView = getErrorModelAndView(PAGE_REGISTRATION,
-                        MessageKeys.EMAIL_EXISTS_MESSAGE.getMessageKey(), lang);
-                addObjectsToModelAndView(modelAndView, pageRegistrationParams, language,
-                        secureService.getEncryptMethodNameForView(), lang);
-                response.setStatus(400);
-                return modelAndView;
-            } catch (EmailNotFoundException ignored) {
-            }
-
             newUser = userService.registerUser(login, username,
                     passwordEncoder.encode(decodedPassword), email, registerRole);
             Utils.clearString(decodedPassword);
             Utils.clearString(decodedConfirmPassword);
             userService.confirmUser(login, "", true);
+        } catch (EmailExistsException e) {
+            modelAndView = getErrorModelAndView(PAGE_REGISTRATION,
+                    MessageKeys.EMAIL_EXISTS_MESSAGE.getMessageKey(), lang);
+            addObjectsToModelAndView(modelAndView, pageRegistrationParams, language,
+                    secureService.getEncryptMethodNameForView(), lang);
+            response.setStatus(400);
+            return modelAndView;
         } catch (UserExistsException e) {
             log.error("User exists! ", e);
             modelAndView = getErrorModelAndView(PAGE_REGISTRATION,
@@ -270,8 +283,7 @@ public class AdminController {
             String authorizedUserName = SecurityHelper.getAuthorizedUserName(userService);
             if (isAuthorizedUser(authorizedUserName)) {
                 User user = userService.getUserByLogin(userName);
-                String realNewPassword = secureService.decrypt(newPassword,
-                        secureService.getSecureKey(request.getRemoteAddr()));
+                String realNewPassword = secureKeyManager.decrypt(request, newPassword);
                 if (user != null) {
                     user.setPassword(passwordEncoder.encode(realNewPassword));
                     Utils.clearString(realNewPassword);
@@ -326,12 +338,12 @@ public class AdminController {
                               @ModelAttribute UserFilter userFilter,
                               @RequestParam(required = false, defaultValue = "1") final int page,
                               @RequestParam(required = false, defaultValue = "5") final int size,
+                              @RequestParam(required = false) final String cursor,
                               @RequestParam(required = false) final String lang) {
 
         ModelAndView modelAndView = new ModelAndView(PAGE_USERS);
         if (SecurityHelper.isAuthorizedAdmin(userService)) {
-            Paged<User> users = userService.getUsers(userFilter, page, size);
-            modelAndView.addObject("users", users);
+            addUsersToModelAndView(modelAndView, userFilter, page, size, cursor);
         } else {
             modelAndView = getErrorModelAndView(UmConfig.LOGIN_URL,
                     MessageKeys.ADMIN_AUTHENTICATION_REQUIRED_MESSAGE.getMessageKey(), lang);
@@ -359,7 +371,7 @@ public class AdminController {
 
         ModelAndView modelAndView = new ModelAndView("userEdit");
         if (SecurityHelper.isAuthorizedAdmin(userService)) {
-            User user = userService.getUserById(id);
+            UserDto user = userService.findUserDtoById(id).orElse(new UserDto());
             modelAndView.addObject("user", user);
         } else {
             modelAndView = getErrorModelAndView(UmConfig.LOGIN_URL,
@@ -404,12 +416,7 @@ public class AdminController {
                     return modelAndView;
                 }
 
-                User userByLogin = null;
-                try {
-                    userByLogin = userService.getUserByLogin(userDto.getLogin());
-                } catch (UsernameNotFoundException e) {
-                    //ignore
-                }
+                User userByLogin = userService.findUserByLogin(userDto.getLogin()).orElse(null);
 
                 if (userByLogin != null && !userByLogin.getId().equals(userDto.getId())) {
                     modelAndView = getErrorModelAndView(PAGE_USERS,
@@ -426,6 +433,7 @@ public class AdminController {
                         .email(userDto.getEmail()).authority(userFromDatabase.getAuthority())
                         .expirationDate(userFromDatabase.getExpirationDate())
                         .verificationId(userFromDatabase.getVerificationId())
+                        .credentialsVersion(userFromDatabase.getCredentialsVersion())
                         .build();
                 newUser = userService.updateUser(newUser);
                 modelAndView.addObject("user", newUser);
@@ -470,6 +478,7 @@ public class AdminController {
                                    @RequestParam Long id,
                                    @RequestParam(required = false, defaultValue = "1") final int page,
                                    @RequestParam(required = false, defaultValue = "5") final int size,
+                                   @RequestParam(required = false) final String cursor,
                                    @RequestParam(required = false) final String lang) {
         ModelAndView modelAndView = new ModelAndView("users");
         if (SecurityHelper.isAuthorizedAdmin(userService)) {
@@ -493,8 +502,7 @@ public class AdminController {
             return modelAndView;
         }
 
-        Paged<User> users = userService.getUsers(UserFilter.emptyUserFilter(), page, size);
-        modelAndView.addObject("users", users);
+        addUsersToModelAndView(modelAndView, UserFilter.emptyUserFilter(), page, size, cursor);
 
         addObjectsToModelAndView(modelAndView, pageUsersParams, language,
                 secureService.getEncryptMethodNameForView(), lang);
@@ -503,7 +511,51 @@ public class AdminController {
         return modelAndView;
     }
 
+    @PostMapping(value = USERS_IMPORT_MAPPING, consumes = {"text/csv", "application/json"})
+    public ResponseEntity<UserImportResult> importUsers(HttpServletRequest request) throws IOException {
+        if (!SecurityHelper.isAuthorizedAdmin(userService)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        if (request.getCharacterEncoding() == null) {
+            request.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        }
+        try {
+            UserImportResult result = userService.importUsers(request.getReader(),
+                    UserImportFormat.getFormat(request.getContentType()));
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (UncheckedIOException e) {
+            log.error("Users import error: ", e);
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping(USERS_EXPORT_MAPPING)
+    public void exportUsers(HttpServletResponse response, @ModelAttribute UserFilter userFilter) throws IOException {
+        if (!SecurityHelper.isAuthorizedAdmin(userService)) {
+            response.sendError(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv\"");
+        userService.exportUsers(response.getWriter(), userFilter);
+    }
+
     private boolean isAuthorizedUser(String userName) {
         return (userName != null && !userName.isEmpty());
     }
+
+    private void addUsersToModelAndView(ModelAndView modelAndView, UserFilter userFilter, int page, int size,
+                                        String cursor) {
+        if (umConfig.isUsersKeysetPagination() || cursor != null) {
+            KeysetPaged<UserView> users = userService.getUserViews(userFilter, cursor, size);
+            modelAndView.addObject("users", users);
+            modelAndView.addObject("keysetPaging", true);
+            modelAndView.addObject("cursor", cursor);
+        } else {
+            Paged<UserView> users = userService.getUserViews(userFilter, page, size);
+            modelAndView.addObject("users", users);
+            modelAndView.addObject("keysetPaging", false);
+        }
+    }
 }
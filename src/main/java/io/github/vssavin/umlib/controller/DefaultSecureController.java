@@ -1,7 +1,7 @@
 package io.github.vssavin.umlib.controller;
 
-import io.github.vssavin.umlib.service.SecureService;
-import io.github.vssavin.umlib.utils.UmUtil;
+import io.github.vssavin.umlib.service.impl.SecureKeyManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,15 +16,18 @@ import javax.servlet.http.HttpServletRequest;
 @RestController
 @RequestMapping("/secure")
 public class DefaultSecureController {
-    private final SecureService secureService;
+    private final SecureKeyManager secureKeyManager;
 
-    public DefaultSecureController(UmUtil umUtil) {
-        this.secureService = umUtil.getAuthService();
+    public DefaultSecureController(SecureKeyManager secureKeyManager) {
+        this.secureKeyManager = secureKeyManager;
     }
 
     @GetMapping(value = "/key")
     public ResponseEntity<String> secureKey(HttpServletRequest request) {
         String addr = request.getRemoteAddr();
-        return new ResponseEntity<>(secureService.getSecureKey(addr), HttpStatus.OK);
+        String key = secureKeyManager.getSecureKey(addr);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(SecureKeyManager.KEY_ID_HEADER, SecureKeyManager.getKeyId(key));
+        return new ResponseEntity<>(key, headers, HttpStatus.OK);
     }
 }
@@ -5,7 +5,7 @@ import io.github.vssavin.umlib.config.UmConfig;
 import io.github.vssavin.umlib.dto.UserDto;
 import io.github.vssavin.umlib.entity.Role;
 import io.github.vssavin.umlib.entity.User;
-import io.github.vssavin.umlib.exception.EmailNotFoundException;
+import io.github.vssavin.umlib.exception.EmailExistsException;
 import io.github.vssavin.umlib.exception.UserExistsException;
 import io.github.vssavin.umlib.helper.SecurityHelper;
 import io.github.vssavin.umlib.helper.ValidatingHelper;
@@ -13,6 +13,7 @@ import io.github.vssavin.umlib.language.UmLanguage;
 import io.github.vssavin.umlib.service.EmailService;
 import io.github.vssavin.umlib.service.SecureService;
 import io.github.vssavin.umlib.service.UserService;
+import io.github.vssavin.umlib.service.impl.SecureKeyManager;
 import io.github.vssavin.umlib.utils.UmUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,12 +68,14 @@ public class UserController {
 
     private final UserService userService;
     private final SecureService secureService;
+    private final SecureKeyManager secureKeyManager;
     private final EmailService emailService;
     private final UmConfig mainConfig;
     private final PasswordEncoder passwordEncoder;
     private final UmLanguage language;
 
-    public UserController(UserService userService, UmUtil umUtil, EmailService emailService,
+    public UserController(UserService userService, UmUtil umUtil, SecureKeyManager secureKeyManager,
+                          EmailService emailService,
                           UmConfig umConfig, PasswordEncoder passwordEncoder, UmLanguage language,
                           LocaleConfig.LocaleSpringMessageSource loginMessageSource,
                           LocaleConfig.LocaleSpringMessageSource userEditYourselfMessageSource,
@@ -83,6 +86,7 @@ public class UserController {
                           LocaleConfig.LocaleSpringMessageSource passwordRecoveryMessageSource) {
         this.userService = userService;
         this.secureService = umUtil.getAuthService();
+        this.secureKeyManager = secureKeyManager;
         this.emailService = emailService;
         this.mainConfig = umConfig;
         this.pageUserEditParams = userEditYourselfMessageSource.getKeys();
@@ -155,8 +159,8 @@ public class UserController {
 
         boolean emailSendingFailed = false;
         try {
-            if (!secureService.decrypt(password, secureService.getSecureKey(request.getRemoteAddr())).equals(
-                    secureService.decrypt(confirmPassword, secureService.getSecureKey(request.getRemoteAddr())))) {
+            if (!secureKeyManager.decrypt(request, password).equals(
+                    secureKeyManager.decrypt(request, confirmPassword))) {
                 modelAndView = getErrorModelAndView(PAGE_REGISTRATION,
                         MessageKeys.PASSWORDS_MUST_BE_IDENTICAL_MESSAGE.getMessageKey(), lang);
                 addObjectsToModelAndView(modelAndView, pageRegistrationParams, language,
@@ -174,20 +178,8 @@ public class UserController {
                 return modelAndView;
             }
 
-            try {
-                userService.getUserByEmail(email);
-                modelAndView = getErrorModelAndView(PAGE_REGISTRATION,
-                        MessageKeys.EMAIL_EXISTS_MESSAGE.getMessageKey(), lang);
-                addObjectsToModelAndView(modelAndView, pageRegistrationParams, language,
-                        secureService.getEncryptMethodNameForView(), lang);
-                response.setStatus(400);
-                return modelAndView;
-            } catch (EmailNotFoundException ignored) {
-            }
-
             newUser = userService.registerUser(login, username,
-                    passwordEncoder.encode(secureService.decrypt(password,
-                            secureService.getSecureKey(request.getRemoteAddr()))),
+                    passwordEncoder.encode(secureKeyManager.decrypt(request, password)),
                     email, registerRole);
             String url = String.format("%s%s/%s?login=%s&verificationId=%s&lang=%s", mainConfig.getApplicationUrl(),
                     USER_CONTROLLER_PATH, PAGE_CONFIRM_USER, login, newUser.getVerificationId(), lang);
@@ -200,6 +192,13 @@ public class UserController {
                 emailSendingFailed = true;
             }
 
+        } catch (EmailExistsException e) {
+            modelAndView = getErrorModelAndView(PAGE_REGISTRATION,
+                    MessageKeys.EMAIL_EXISTS_MESSAGE.getMessageKey(), lang);
+            addObjectsToModelAndView(modelAndView, pageRegistrationParams, language,
+                    secureService.getEncryptMethodNameForView(), lang);
+            response.setStatus(400);
+            return modelAndView;
         } catch (UserExistsException e) {
             modelAndView = getErrorModelAndView(PAGE_REGISTRATION,
                     MessageKeys.USER_EXISTS_PATTERN.getMessageKey(), lang, username);
@@ -270,10 +269,8 @@ public class UserController {
                     return modelAndView;
                 }
                 User user = userService.getUserByLogin(authorizedUserName);
-                String realNewPassword = secureService.decrypt(newPassword,
-                        secureService.getSecureKey(request.getRemoteAddr()));
-                String realCurrentPassword = secureService.decrypt(currentPassword,
-                        secureService.getSecureKey(request.getRemoteAddr()));
+                String realNewPassword = secureKeyManager.decrypt(request, newPassword);
+                String realCurrentPassword = secureKeyManager.decrypt(request, currentPassword);
                 if (user != null) {
                     if (passwordEncoder.matches(realCurrentPassword, user.getPassword())) {
                         user.setPassword(passwordEncoder.encode(realNewPassword));
@@ -367,7 +364,7 @@ public class UserController {
                 User user = userService.getUserByRecoveryId(recoveryId);
                 String newPassword = userService.generateNewUserPassword(recoveryId);
                 String message = "Your new password: " + newPassword;
-                emailService.sendSimpleMessage(user.getEmail(), "Your new password: ", message);
+                emailService.sendSensitiveMessage(user.getEmail(), "Your new password: ", message);
             } catch (UsernameNotFoundException usernameNotFoundException) {
                 log.error("User not found! ", usernameNotFoundException);
                 modelAndView.addObject("userNotFound", true);
@@ -401,7 +398,7 @@ public class UserController {
                 User user = map.get(optionalRecoveryId.get());
                 String message = mainConfig.getApplicationUrl() + USER_CONTROLLER_PATH + "/" +
                         PAGE_RECOVERY_PASSWORD + "?recoveryId=" + optionalRecoveryId.get();
-                emailService.sendSimpleMessage(user.getEmail(), "Password recovery", message);
+                emailService.sendSensitiveMessage(user.getEmail(), "Password recovery", message);
             }
         } catch (UsernameNotFoundException usernameNotFoundException) {
             log.error("User not found: " + loginOrEmail + "! ", usernameNotFoundException);
@@ -431,9 +428,10 @@ public class UserController {
                                  @RequestParam(required = false) final String lang) {
 
         ModelAndView modelAndView = new ModelAndView(PAGE_USER_EDIT);
-        User user;
+        UserDto user;
         try {
-            user = userService.getUserByLogin(login);
+            user = userService.findUserDtoByLogin(login).orElseThrow(() ->
+                    new UsernameNotFoundException(String.format("User with login: %s not found!", login)));
 
             if (!SecurityHelper.getAuthorizedUserLogin().equals(user.getLogin())) {
                 modelAndView = getErrorModelAndView(UmConfig.LOGIN_URL,
@@ -508,8 +506,10 @@ public class UserController {
                     .email(userDto.getEmail()).authority(userFromDatabase.getAuthority())
                     .expirationDate(userFromDatabase.getExpirationDate())
                     .verificationId(userFromDatabase.getVerificationId())
+                    .credentialsVersion(userFromDatabase.getCredentialsVersion())
                     .build();
             newUser = userService.updateUser(newUser);
+            SecurityHelper.updateAuthorizedPrincipal(newUser);
             modelAndView.addObject("user", newUser);
             modelAndView.addObject("success", true);
             String successMsg = LocaleConfig
@@ -547,10 +547,11 @@ public class UserController {
                                  @RequestParam(required = false) final String lang) {
 
         ModelAndView modelAndView = new ModelAndView(PAGE_USER_CONTROL_PANEL);
-        User user;
+        UserDto user;
         try {
             String login = SecurityHelper.getAuthorizedUserLogin();
-            user = userService.getUserByLogin(login);
+            user = userService.findUserDtoByLogin(login).orElseThrow(() ->
+                    new UsernameNotFoundException(String.format("User with login: %s not found!", login)));
         } catch (Exception e) {
             log.error("User update error! ", e);
             modelAndView = getErrorModelAndView(UmConfig.LOGIN_URL,
@@ -0,0 +1,42 @@
+package io.github.vssavin.umlib.dto;
+
+/**
+ * Password recovery token issued for the user.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class RecoveryToken {
+    private final String token;
+    private final Long userId;
+    private final long expirationTime;
+
+    public RecoveryToken(String token, Long userId, long expirationTime) {
+        this.token = token;
+        this.userId = userId;
+        this.expirationTime = expirationTime;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getExpirationTime() {
+        return expirationTime;
+    }
+
+    public boolean isExpired() {
+        return expirationTime < System.currentTimeMillis();
+    }
+
+    @Override
+    public String toString() {
+        return "RecoveryToken{" +
+                "userId=" + userId +
+                ", expirationTime=" + expirationTime +
+                '}';
+    }
+}
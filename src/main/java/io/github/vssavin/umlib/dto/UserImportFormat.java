@@ -0,0 +1,14 @@
+package io.github.vssavin.umlib.dto;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public enum UserImportFormat {
+    CSV,
+    JSON;
+
+    public static UserImportFormat getFormat(String contentType) {
+        if (contentType != null && contentType.toLowerCase().contains("json")) return JSON;
+        return CSV;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.vssavin.umlib.dto;
+
+/**
+ * User data read from the import source.
+ * Password is either raw or BCrypt encoded, empty password means that the user should use password recovery.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class UserImportRecord {
+    private String login;
+    private String name;
+    private String password;
+    private String email;
+    private String role;
+
+    public UserImportRecord(String login, String name, String password, String email, String role) {
+        this.login = login;
+        this.name = name;
+        this.password = password;
+        this.email = email;
+        this.role = role;
+    }
+
+    public UserImportRecord() {
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.vssavin.umlib.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class UserImportResult {
+    public static final int MAX_ERRORS = 100;
+
+    private int imported;
+    private int skipped;
+    private int failed;
+    private final List<String> errors = new ArrayList<>();
+
+    public void addImported(int count) {
+        imported += count;
+    }
+
+    /**
+     * Registers the record which is not imported because the user with such login or email exists.
+     */
+    public void addSkipped(int recordNumber, String reason) {
+        skipped++;
+        addError(recordNumber, reason);
+    }
+
+    /**
+     * Registers the record which is not imported because it is invalid or cannot be saved.
+     */
+    public void addFailed(int recordNumber, String reason) {
+        failed++;
+        addError(recordNumber, reason);
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return first {@value #MAX_ERRORS} errors
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    private void addError(int recordNumber, String reason) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("Record " + recordNumber + ": " + reason);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "UserImportResult{" +
+                "imported=" + imported +
+                ", skipped=" + skipped +
+                ", failed=" + failed +
+                '}';
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.vssavin.umlib.dto;
+
+import java.util.Date;
+
+/**
+ * User data shown in the users list, without password.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class UserView {
+    private Long id;
+    private String login;
+    private String name;
+    private String email;
+    private String authority;
+    private Date expirationDate;
+    private String verificationId;
+
+    public UserView(Long id, String login, String name, String email, String authority, Date expirationDate,
+                    String verificationId) {
+        this.id = id;
+        this.login = login;
+        this.name = name;
+        this.email = email;
+        this.authority = authority;
+        this.expirationDate = expirationDate;
+        this.verificationId = verificationId;
+    }
+
+    public UserView() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getAuthority() {
+        return authority;
+    }
+
+    public void setAuthority(String authority) {
+        this.authority = authority;
+    }
+
+    public Date getExpirationDate() {
+        return expirationDate;
+    }
+
+    public void setExpirationDate(Date expirationDate) {
+        this.expirationDate = expirationDate;
+    }
+
+    public String getVerificationId() {
+        return verificationId;
+    }
+
+    public void setVerificationId(String verificationId) {
+        this.verificationId = verificationId;
+    }
+}
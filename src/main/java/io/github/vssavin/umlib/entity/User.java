@@ -25,6 +25,9 @@ public class User {
     private Date expirationDate;
     @Column(name = "verification_id")
     private String verificationId;
+    //is changed with the password, so it is not changed by re-encoding of the same password
+    @Column(name = "credentials_version")
+    private long credentialsVersion;
 
     public User(String login, String name, String password, String email, String authority) {
         this.login = login;
@@ -73,7 +76,12 @@ public class User {
         return email;
     }
 
+    public long getCredentialsVersion() {
+        return credentialsVersion;
+    }
+
     public void setPassword(String password) {
+        if (!Objects.equals(this.password, password)) credentialsVersion++;
         this.password = password;
     }
 
@@ -98,6 +106,7 @@ public class User {
         private String authority;
         private Date expirationDate;
         private String verificationId;
+        private long credentialsVersion;
 
         private UserBuilder(){}
 
@@ -141,6 +150,11 @@ public class User {
             return this;
         }
 
+        public UserBuilder credentialsVersion(long credentialsVersion) {
+            this.credentialsVersion = credentialsVersion;
+            return this;
+        }
+
         public User build() {
             User user = new User();
             user.id = id;
@@ -151,6 +165,7 @@ public class User {
             user.authority = authority;
             user.expirationDate = expirationDate;
             user.verificationId = verificationId;
+            user.credentialsVersion = credentialsVersion;
             return user;
         }
     }
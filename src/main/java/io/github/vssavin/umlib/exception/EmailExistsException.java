@@ -0,0 +1,14 @@
+package io.github.vssavin.umlib.exception;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class EmailExistsException extends UserExistsException {
+    public EmailExistsException(String message) {
+        super(message);
+    }
+
+    public EmailExistsException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.vssavin.umlib.exception;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class MigrationException extends RuntimeException{
+    public MigrationException(String message) {
+        super(message);
+    }
+
+    public MigrationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
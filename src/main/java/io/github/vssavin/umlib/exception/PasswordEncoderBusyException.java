@@ -0,0 +1,14 @@
+package io.github.vssavin.umlib.exception;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class PasswordEncoderBusyException extends RuntimeException{
+    public PasswordEncoderBusyException(String message) {
+        super(message);
+    }
+
+    public PasswordEncoderBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
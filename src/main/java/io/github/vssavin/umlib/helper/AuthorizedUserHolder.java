@@ -0,0 +1,105 @@
+package io.github.vssavin.umlib.helper;
+
+import io.github.vssavin.umlib.entity.User;
+import io.github.vssavin.umlib.service.UserService;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.servlet.http.HttpServletRequest;
+import java.security.Principal;
+import java.util.Optional;
+
+/**
+ * Resolves the authorized user once per request and keeps it in the request attributes,
+ * so helpers called several times during one request do not query the user service again.
+ * Outside of a request the user is resolved on every call.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public final class AuthorizedUserHolder {
+    private static final String ATTRIBUTE_NAME = AuthorizedUserHolder.class.getName() + ".AUTHORIZED_USER";
+
+    private AuthorizedUserHolder() {}
+
+    /**
+     * @return user of the current security context or null if there is no authorized user or it is not found
+     */
+    public static User getAuthorizedUser(UserService userService) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return resolve(authentication, userService);
+        }
+        ResolvedUser resolvedUser = (ResolvedUser) attributes.getAttribute(ATTRIBUTE_NAME,
+                RequestAttributes.SCOPE_REQUEST);
+        if (resolvedUser == null || !resolvedUser.isResolvedFor(authentication)) {
+            resolvedUser = new ResolvedUser(authentication, resolve(authentication, userService));
+            attributes.setAttribute(ATTRIBUTE_NAME, resolvedUser, RequestAttributes.SCOPE_REQUEST);
+        }
+        return resolvedUser.user;
+    }
+
+    /**
+     * @return user of the request principal or null if there is no authorized user or it is not found
+     */
+    public static User getAuthorizedUser(HttpServletRequest request, UserService userService) {
+        Principal principal = request.getUserPrincipal();
+        ResolvedUser resolvedUser = (ResolvedUser) request.getAttribute(ATTRIBUTE_NAME);
+        if (resolvedUser == null || !resolvedUser.isResolvedFor(principal)) {
+            resolvedUser = new ResolvedUser(principal, resolve(principal, userService));
+            request.setAttribute(ATTRIBUTE_NAME, resolvedUser);
+        }
+        return resolvedUser.user;
+    }
+
+    /**
+     * Removes the resolved user of the current request, e.g. after the user has been changed.
+     */
+    public static void reset() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.removeAttribute(ATTRIBUTE_NAME, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static User resolve(Principal principal, UserService userService) {
+        if (principal == null || userService == null) {
+            return null;
+        }
+        String login = principal.getName();
+        if (principal instanceof OAuth2AuthenticationToken) {
+            OAuth2AuthenticationToken token = (OAuth2AuthenticationToken) principal;
+            User user = userService.getUserByOAuth2Token(token);
+            if (user != null) return user;
+            login = token.getPrincipal().getAttribute("email");
+        }
+        if (login == null || login.isEmpty()) {
+            return null;
+        }
+        Optional<User> user = userService.findUserByLogin(login);
+        //user may be authorized by email
+        return user.isPresent() ? user.get() : userService.findUserByEmail(login).orElse(null);
+    }
+
+    /**
+     * User resolved for the principal, the principal is compared by name,
+     * so the user is resolved again if another user is authorized during the request.
+     */
+    private static class ResolvedUser {
+        private final String principalName;
+        private final User user;
+
+        private ResolvedUser(Principal principal, User user) {
+            this.principalName = principal != null ? principal.getName() : null;
+            this.user = user;
+        }
+
+        private boolean isResolvedFor(Principal principal) {
+            String name = principal != null ? principal.getName() : null;
+            return name == null ? principalName == null : name.equals(principalName);
+        }
+    }
+}
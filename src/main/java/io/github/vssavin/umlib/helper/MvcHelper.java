@@ -25,9 +25,7 @@ public class MvcHelper {
             }
 
             if (elements != null && page != null) {
-                for(String param : elements) {
-                    modelAndView.addObject(param, LocaleConfig.getMessage(page.replaceFirst("/", ""), param, requestedLang));
-                }
+                addPageMessages(modelAndView, page.replaceFirst("/", ""), elements, requestedLang);
             }
 
             if (requestedLang != null) {
@@ -53,9 +51,7 @@ public class MvcHelper {
 
         else {
             if (elements != null) {
-                for(String param : elements) {
-                    modelAndView.addObject(param, LocaleConfig.getMessage(viewName, param, requestedLang));
-                }
+                addPageMessages(modelAndView, viewName, elements, requestedLang);
             }
 
             if (requestedLang != null) {
@@ -129,4 +125,19 @@ public class MvcHelper {
 
         return modelAndView;
     }
+
+    private static void addPageMessages(ModelAndView modelAndView, String page, Collection<String> elements,
+                                        String requestedLang) {
+        Map<String, String> pageMessages = LocaleConfig.getPageMessages(page, requestedLang);
+        if (elements.size() == pageMessages.size() && pageMessages.keySet().containsAll(elements)) {
+            modelAndView.addAllObjects(pageMessages);
+            return;
+        }
+
+        for(String param : elements) {
+            String message = pageMessages.get(param);
+            if (message == null) message = LocaleConfig.getMessage(page, param, requestedLang);
+            modelAndView.addObject(param, message);
+        }
+    }
 }
@@ -2,11 +2,11 @@ package io.github.vssavin.umlib.helper;
 
 import io.github.vssavin.umlib.entity.Role;
 import io.github.vssavin.umlib.entity.User;
-import io.github.vssavin.umlib.exception.EmailNotFoundException;
+import io.github.vssavin.umlib.security.spring.CustomUsernamePasswordAuthenticationToken;
+import io.github.vssavin.umlib.security.spring.UserPrincipal;
 import io.github.vssavin.umlib.service.UserService;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 
@@ -18,22 +18,10 @@ public class SecurityHelper {
     private SecurityHelper() {}
 
     public static String getAuthorizedUserName(UserService userService) {
-        String authorizedUserName = getAuthorizedUserLogin();
-        if (!authorizedUserName.isEmpty() && userService != null) {
-            try {
-                authorizedUserName = userService.getUserByLogin(authorizedUserName).getName();
-            } catch (UsernameNotFoundException e) {
-                authorizedUserName = "";
-            }
-            if (authorizedUserName.isEmpty()) {
-                try {
-                    authorizedUserName = userService.getUserByEmail(authorizedUserName).getName();
-                } catch (EmailNotFoundException ignore) {
-                    //ignore, it's ok
-                }
-            }
-        }
-        return authorizedUserName;
+        UserPrincipal principal = getAuthorizedPrincipal();
+        if (principal != null) return principal.getUserName();
+        User user = AuthorizedUserHolder.getAuthorizedUser(userService);
+        return user != null ? user.getName() : getAuthorizedUserLogin();
     }
 
     public static String getAuthorizedUserLogin() {
@@ -50,32 +38,37 @@ public class SecurityHelper {
         return authorizedUserName;
     }
 
-    public static boolean isAuthorizedAdmin(UserService userService) {
-        String login = getAuthorizedUserLogin();
-        boolean isAdminUser = false;
-        User user = null;
-        if (!login.isEmpty() && userService != null) {
-            try {
-                user = userService.getUserByLogin(login);
-            } catch (UsernameNotFoundException ignored) {
-            }
-
-            if (user == null) {
-                try {
-                    user = userService.getUserByEmail(login);
-                } catch (EmailNotFoundException ignored) {
-                    //ignore, it's ok
-                }
-            }
+    public static UserPrincipal getAuthorizedPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal) {
+            return (UserPrincipal) authentication.getPrincipal();
+        }
+        return null;
+    }
 
-            if (user != null) {
-                String authority = user.getAuthority();
-                Role role = Role.getRole(authority);
-                if (role.equals(Role.ROLE_ADMIN)) isAdminUser = true;
-            }
+    /**
+     * Replaces principal of the current authentication if it belongs to the specified user,
+     * so changes of user data are visible without repeated login.
+     */
+    public static void updateAuthorizedPrincipal(User user) {
+        UserPrincipal principal = getAuthorizedPrincipal();
+        if (principal == null || user == null || !principal.getId().equals(user.getId())) return;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        CustomUsernamePasswordAuthenticationToken token = new CustomUsernamePasswordAuthenticationToken(
+                new UserPrincipal(user), authentication.getCredentials(), authentication.getAuthorities());
+        token.setDetails(authentication.getDetails());
+        SecurityContextHolder.getContext().setAuthentication(token);
+        AuthorizedUserHolder.reset();
+    }
 
-        }
-        return isAdminUser;
+    /**
+     * Checks the authority of the actual user instead of the authority kept in the session principal,
+     * so the admin loses access right after the role change or deletion. User is resolved once per request
+     * from the user service (read-through cache, invalidated when the user is changed or deleted).
+     */
+    public static boolean isAuthorizedAdmin(UserService userService) {
+        User user = AuthorizedUserHolder.getAuthorizedUser(userService);
+        return user != null && Role.getRole(user.getAuthority()) == Role.ROLE_ADMIN;
     }
 
 }
@@ -0,0 +1,39 @@
+package io.github.vssavin.umlib.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Metrics registry used if metrics are disabled, ignores all measurements.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public final class NoOpUmMetrics implements UmMetrics {
+    public static final NoOpUmMetrics INSTANCE = new NoOpUmMetrics();
+
+    private NoOpUmMetrics() {}
+
+    @Override
+    public long startTimer() {
+        return 0;
+    }
+
+    @Override
+    public void stopTimer(String name, long startTime) {
+        //disabled
+    }
+
+    @Override
+    public void increment(String name) {
+        //disabled
+    }
+
+    @Override
+    public void gauge(String name, LongSupplier valueSupplier) {
+        //disabled
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.vssavin.umlib.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory metrics registry: keeps count, total and max time of timers, values of counters
+ * and suppliers of gauges, all values are available in the {@link #snapshot()}.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class SimpleUmMetrics implements UmMetrics {
+    private final ConcurrentMap<String, TimerStats> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    @Override
+    public long startTimer() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void stopTimer(String name, long startTime) {
+        timers.computeIfAbsent(name, key -> new TimerStats()).record(System.nanoTime() - startTime);
+    }
+
+    @Override
+    public void increment(String name) {
+        counters.computeIfAbsent(name, key -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void gauge(String name, LongSupplier valueSupplier) {
+        gauges.put(name, valueSupplier);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    public long getCount(String name) {
+        LongAdder counter = counters.get(name);
+        if (counter != null) return counter.sum();
+        TimerStats timer = timers.get(name);
+        return timer != null ? timer.count.sum() : 0;
+    }
+
+    public long getTotalTimeMillis(String name) {
+        TimerStats timer = timers.get(name);
+        return timer != null ? TimeUnit.NANOSECONDS.toMillis(timer.totalNanos.sum()) : 0;
+    }
+
+    public Long getGaugeValue(String name) {
+        LongSupplier gauge = gauges.get(name);
+        return gauge != null ? gauge.getAsLong() : null;
+    }
+
+    /**
+     * @return current values of all metrics sorted by name,
+     * timers are represented by the name.count, name.totalMillis and name.maxMillis entries
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        timers.forEach((name, timer) -> {
+            snapshot.put(name + ".count", timer.count.sum());
+            snapshot.put(name + ".totalMillis", TimeUnit.NANOSECONDS.toMillis(timer.totalNanos.sum()));
+            snapshot.put(name + ".maxMillis", TimeUnit.NANOSECONDS.toMillis(timer.maxNanos.get()));
+        });
+        counters.forEach((name, counter) -> snapshot.put(name, counter.sum()));
+        gauges.forEach((name, gauge) -> snapshot.put(name, gauge.getAsLong()));
+        return snapshot;
+    }
+
+    private static class TimerStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.vssavin.umlib.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of um-lib timers, counters and gauges.
+ * The registry used by um-lib is the "umMetrics" bean, other monitoring systems can be plugged in
+ * by defining a bean with this name which adapts this interface to the monitoring system registry.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public interface UmMetrics {
+
+    /**
+     * @return start time to pass to {@link #stopTimer(String, long)}
+     */
+    long startTimer();
+
+    /**
+     * Records time elapsed since the start time to the timer with the specified name.
+     */
+    void stopTimer(String name, long startTime);
+
+    void increment(String name);
+
+    void gauge(String name, LongSupplier valueSupplier);
+
+    boolean isEnabled();
+}
@@ -0,0 +1,88 @@
+package io.github.vssavin.umlib.metrics;
+
+import io.github.vssavin.umlib.service.SecureService;
+import io.github.vssavin.umlib.service.UserService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Wraps {@link UserService} beans to time each method and {@link SecureService} beans to time decryption.
+ * Beans are proxied by class, so they can still be injected by their concrete type; beans which are already
+ * proxies receive the timing advice instead of being wrapped again. Beans are not wrapped if metrics are disabled.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+@Component
+public class UmMetricsBeanPostProcessor implements BeanPostProcessor {
+    private final UmMetrics umMetrics;
+
+    public UmMetricsBeanPostProcessor(UmMetrics umMetrics) {
+        this.umMetrics = umMetrics;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!umMetrics.isEnabled()) return bean;
+        if (bean instanceof UserService) {
+            return createTimedProxy(bean, UserService.class, "um.userService.", null);
+        }
+        if (bean instanceof SecureService) {
+            return createTimedProxy(bean, SecureService.class, "um.secureService.", "decrypt");
+        }
+        return bean;
+    }
+
+    /**
+     * @param timedMethod name of the method to time, all methods of the type are timed if null
+     */
+    private Object createTimedProxy(Object bean, Class<?> type, String prefix, String timedMethod) {
+        Advisor advisor = createTimingAdvisor(type, prefix, timedMethod);
+        if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            ((Advised) bean).addAdvisor(0, advisor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        //final class can not be subclassed, it is proxied by its interfaces
+        proxyFactory.setProxyTargetClass(!Modifier.isFinal(bean.getClass().getModifiers()));
+        proxyFactory.addAdvisor(advisor);
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+
+    private Advisor createTimingAdvisor(Class<?> type, String prefix, String timedMethod) {
+        MethodInterceptor interceptor = invocation -> {
+            String name = prefix + invocation.getMethod().getName();
+            long startTime = umMetrics.startTimer();
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                umMetrics.increment(name + ".errors");
+                throw e;
+            } finally {
+                umMetrics.stopTimer(name, startTime);
+            }
+        };
+        return new StaticMethodMatcherPointcutAdvisor(interceptor) {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return (timedMethod == null || timedMethod.equals(method.getName())) && isDeclared(type, method);
+            }
+        };
+    }
+
+    private static boolean isDeclared(Class<?> type, Method method) {
+        try {
+            type.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.vssavin.umlib.migration;
+
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Sql script with its checksum.
+ * Versioned scripts are named V&lt;version&gt;__&lt;description&gt;.sql and are applied once,
+ * other scripts are repeatable and are applied again when their content is changed.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class Migration {
+    private static final Pattern VERSIONED_NAME_PATTERN = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    private final Integer version;
+    private final String description;
+    private final String script;
+    private final byte[] content;
+    private final long checksum;
+
+    private Migration(Integer version, String description, String script, byte[] content) {
+        this.version = version;
+        this.description = description;
+        this.script = script;
+        this.content = content;
+        CRC32 crc32 = new CRC32();
+        crc32.update(content);
+        this.checksum = crc32.getValue();
+    }
+
+    /**
+     * Reads the script.
+     * @param location directory of the script, identifies repeatable scripts together with the file name
+     */
+    public static Migration of(Resource resource, String location) throws IOException {
+        String fileName = String.valueOf(resource.getFilename());
+        byte[] content;
+        try (InputStream inputStream = resource.getInputStream()) {
+            content = StreamUtils.copyToByteArray(inputStream);
+        }
+        Matcher matcher = VERSIONED_NAME_PATTERN.matcher(fileName);
+        if (matcher.matches()) {
+            return new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '), fileName,
+                    content);
+        }
+        String script = location.isEmpty() ? fileName : location + "/" + fileName;
+        return new Migration(null, script, script, content);
+    }
+
+    public boolean isVersioned() {
+        return version != null;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getScript() {
+        return script;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+
+    @Override
+    public String toString() {
+        return "Migration{" +
+                "version=" + version +
+                ", script='" + script + '\'' +
+                ", checksum=" + checksum +
+                '}';
+    }
+}
@@ -0,0 +1,215 @@
+package io.github.vssavin.umlib.migration;
+
+import io.github.vssavin.umlib.exception.MigrationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Applies sql scripts to the database and tracks them with checksums:
+ * versioned scripts are registered in the um_schema_history table and are applied once in version order,
+ * repeatable scripts are registered in the um_schema_scripts table and are applied again only if changed.
+ * Each script is applied in its own transaction together with its registration.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class MigrationRunner {
+    public static final String HISTORY_TABLE = "um_schema_history";
+    public static final String SCRIPTS_TABLE = "um_schema_scripts";
+    public static final String COMMON_LOCATION = "common";
+    private static final Logger log = LoggerFactory.getLogger(MigrationRunner.class);
+
+    private final DataSource dataSource;
+    private final ResourcePatternResolver resourceResolver;
+
+    public MigrationRunner(DataSource dataSource) {
+        this(dataSource, new PathMatchingResourcePatternResolver(MigrationRunner.class.getClassLoader()));
+    }
+
+    public MigrationRunner(DataSource dataSource, ResourcePatternResolver resourceResolver) {
+        this.dataSource = dataSource;
+        this.resourceResolver = resourceResolver;
+    }
+
+    /**
+     * Applies versioned scripts from the "common" and the database vendor (e.g. "postgresql", "h2")
+     * subdirectories of the directory. Vendor script replaces the common script with the same version.
+     * @return count of applied scripts
+     * @throws MigrationException if applying of a script fails or an applied script has been changed
+     */
+    public int migrate(String directory) {
+        try (Connection connection = dataSource.getConnection()) {
+            String vendor = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+            TreeMap<Integer, Migration> migrations = new TreeMap<>();
+            migrations.putAll(loadVersioned(directory + "/" + COMMON_LOCATION));
+            migrations.putAll(loadVersioned(directory + "/" + vendor));
+            if (migrations.isEmpty()) {
+                log.warn("Migration scripts for database: " + vendor + " not found!");
+                return 0;
+            }
+
+            createHistoryTables(connection);
+            Map<Integer, Long> appliedChecksums = loadChecksums(connection,
+                    "select version, checksum from " + HISTORY_TABLE, resultSet -> resultSet.getInt(1));
+            int applied = 0;
+            for (Migration migration : migrations.values()) {
+                Long checksum = appliedChecksums.get(migration.getVersion());
+                if (checksum == null) {
+                    apply(connection, migration);
+                    applied++;
+                } else if (checksum != migration.getChecksum()) {
+                    throw new MigrationException("Applied migration " + migration.getScript() + " has been changed!");
+                }
+            }
+            return applied;
+        } catch (SQLException | IOException e) {
+            throw new MigrationException("Migration error: directory = " + directory, e);
+        }
+    }
+
+    /**
+     * Applies scripts, which are not applied yet or have been changed since the last applying, ordered by name.
+     * @param location directory of the scripts, used to identify them
+     * @return count of applied scripts
+     * @throws MigrationException if applying of a script fails
+     */
+    public int applyScripts(String location, Collection<Resource> resources) {
+        TreeMap<String, Migration> scripts = new TreeMap<>();
+        try {
+            for (Resource resource : resources) {
+                Migration migration = Migration.of(resource, location);
+                if (scripts.putIfAbsent(migration.getScript(), migration) != null) {
+                    log.warn("Duplicate sql script: " + migration.getScript() + " is skipped!");
+                }
+            }
+        } catch (IOException e) {
+            throw new MigrationException("Reading sql scripts error: location = " + location, e);
+        }
+        if (scripts.isEmpty()) {
+            return 0;
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            createHistoryTables(connection);
+            Map<String, Long> appliedChecksums = loadChecksums(connection,
+                    "select script, checksum from " + SCRIPTS_TABLE, resultSet -> resultSet.getString(1));
+            int applied = 0;
+            for (Migration script : scripts.values()) {
+                Long checksum = appliedChecksums.get(script.getScript());
+                if (checksum == null || checksum != script.getChecksum()) {
+                    apply(connection, script);
+                    applied++;
+                }
+            }
+            return applied;
+        } catch (SQLException e) {
+            throw new MigrationException("Applying sql scripts error: location = " + location, e);
+        }
+    }
+
+    public Resource[] getResources(String locationPattern) throws IOException {
+        return resourceResolver.getResources(locationPattern);
+    }
+
+    private Map<Integer, Migration> loadVersioned(String location) throws IOException {
+        Map<Integer, Migration> migrations = new HashMap<>();
+        for (Resource resource : getResources("classpath*:" + location + "/*.sql")) {
+            Migration migration = Migration.of(resource, location);
+            if (!migration.isVersioned()) {
+                log.warn("Skipping migration script with wrong name: " + location + "/" + resource.getFilename());
+                continue;
+            }
+            Migration previous = migrations.put(migration.getVersion(), migration);
+            if (previous != null) {
+                throw new MigrationException("Found more than one migration with version " +
+                        migration.getVersion() + ": " + previous.getScript() + ", " + migration.getScript());
+            }
+        }
+        return migrations;
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        log.info("Applying sql script: " + migration.getScript());
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            ScriptUtils.executeSqlScript(connection, new EncodedResource(
+                    new ByteArrayResource(migration.getContent(), migration.getScript()), StandardCharsets.UTF_8));
+            register(connection, migration);
+            connection.commit();
+        } catch (Exception e) {
+            connection.rollback();
+            throw new MigrationException("Applying sql script " + migration.getScript() + " error!", e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void register(Connection connection, Migration migration) throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        if (migration.isVersioned()) {
+            try (PreparedStatement statement = connection.prepareStatement("insert into " + HISTORY_TABLE +
+                    "(version, description, script, checksum, installed_on) values (?, ?, ?, ?, ?)")) {
+                statement.setInt(1, migration.getVersion());
+                statement.setString(2, migration.getDescription());
+                statement.setString(3, migration.getScript());
+                statement.setLong(4, migration.getChecksum());
+                statement.setTimestamp(5, now);
+                statement.executeUpdate();
+            }
+        } else {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "delete from " + SCRIPTS_TABLE + " where script = ?")) {
+                statement.setString(1, migration.getScript());
+                statement.executeUpdate();
+            }
+            try (PreparedStatement statement = connection.prepareStatement("insert into " + SCRIPTS_TABLE +
+                    "(script, checksum, installed_on) values (?, ?, ?)")) {
+                statement.setString(1, migration.getScript());
+                statement.setLong(2, migration.getChecksum());
+                statement.setTimestamp(3, now);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    private void createHistoryTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table IF NOT EXISTS " + HISTORY_TABLE + "(" +
+                    "version int primary key, description varchar(200) not null, " +
+                    "script varchar(200) not null, checksum bigint not null, installed_on timestamp not null)");
+            statement.execute("create table IF NOT EXISTS " + SCRIPTS_TABLE + "(" +
+                    "script varchar(255) primary key, checksum bigint not null, installed_on timestamp not null)");
+        }
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+
+    private static <K> Map<K, Long> loadChecksums(Connection connection, String query, KeyExtractor<K> keyExtractor)
+            throws SQLException {
+        Map<K, Long> checksums = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            while (resultSet.next()) {
+                checksums.put(keyExtractor.extract(resultSet), resultSet.getLong(2));
+            }
+        }
+        return checksums;
+    }
+
+    private interface KeyExtractor<K> {
+        K extract(ResultSet resultSet) throws SQLException;
+    }
+}
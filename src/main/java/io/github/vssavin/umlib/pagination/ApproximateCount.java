@@ -0,0 +1,39 @@
+package io.github.vssavin.umlib.pagination;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Count of rows, which is calculated at most once per the specified period.
+ * Used to render the page bar without count query on every page.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class ApproximateCount {
+    private final long ttlMillis;
+    private final LongSupplier counter;
+
+    private volatile long value = -1;
+    private volatile long calculatedAt;
+
+    public ApproximateCount(long ttlMillis, LongSupplier counter) {
+        this.ttlMillis = ttlMillis;
+        this.counter = counter;
+    }
+
+    public long get() {
+        long now = System.currentTimeMillis();
+        if (value < 0 || now - calculatedAt >= ttlMillis) {
+            synchronized (this) {
+                if (value < 0 || now - calculatedAt >= ttlMillis) {
+                    value = counter.getAsLong();
+                    calculatedAt = now;
+                }
+            }
+        }
+        return value;
+    }
+
+    public void invalidate() {
+        value = -1;
+    }
+}
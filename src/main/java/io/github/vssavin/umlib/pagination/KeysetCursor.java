@@ -0,0 +1,91 @@
+package io.github.vssavin.umlib.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Opaque position in the list ordered by id: the id of the boundary row and the direction of reading from it.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class KeysetCursor {
+    private static final String NEXT = "n";
+    private static final String PREV = "p";
+
+    private final long id;
+    private final boolean forward;
+
+    private KeysetCursor(long id, boolean forward) {
+        this.id = id;
+        this.forward = forward;
+    }
+
+    /**
+     * Cursor to rows with id greater than the specified one.
+     */
+    public static KeysetCursor after(long id) {
+        return new KeysetCursor(id, true);
+    }
+
+    /**
+     * Cursor to rows with id less than the specified one.
+     */
+    public static KeysetCursor before(long id) {
+        return new KeysetCursor(id, false);
+    }
+
+    /**
+     * Decodes cursor produced by {@link #encode()}.
+     * @return decoded cursor or null if the value is empty or malformed (the first page is read in this case)
+     */
+    public static KeysetCursor decode(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(":");
+            if (parts.length != 2 || !(NEXT.equals(parts[0]) || PREV.equals(parts[0]))) {
+                return null;
+            }
+            return new KeysetCursor(Long.parseLong(parts[1]), NEXT.equals(parts[0]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public String encode() {
+        String value = (forward ? NEXT : PREV) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public boolean isForward() {
+        return forward;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        KeysetCursor that = (KeysetCursor) o;
+        return id == that.id && forward == that.forward;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, forward);
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor{" +
+                "id=" + id +
+                ", forward=" + forward +
+                '}';
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.vssavin.umlib.pagination;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class KeysetPaged<T> {
+    private List<T> page = new ArrayList<>();
+    private KeysetPaging paging;
+
+    public KeysetPaged(List<T> page, KeysetPaging paging) {
+        this.page = page;
+        this.paging = paging;
+    }
+
+    public KeysetPaged() {
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetPaged{" +
+                "page=" + page +
+                ", paging=" + paging +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        KeysetPaged<?> paged = (KeysetPaged<?>) o;
+        return page.equals(paged.page) && Objects.equals(paging, paged.paging);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(page, paging);
+    }
+
+    public List<T> getPage() {
+        return page;
+    }
+
+    public KeysetPaging getPaging() {
+        return paging;
+    }
+
+    public void setPage(List<T> page) {
+        this.page = page;
+    }
+
+    public void setPaging(KeysetPaging paging) {
+        this.paging = paging;
+    }
+}
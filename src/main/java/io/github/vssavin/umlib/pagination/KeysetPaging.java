@@ -0,0 +1,97 @@
+package io.github.vssavin.umlib.pagination;
+
+/**
+ * Navigation for the keyset pagination: previous and next links without total count of rows.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class KeysetPaging {
+
+    private boolean nextEnabled;
+    private boolean prevEnabled;
+    private int pageSize;
+    private String nextCursor;
+    private String prevCursor;
+    private Long approximateTotalCount;
+
+    public static KeysetPaging of(int pageSize, String prevCursor, String nextCursor, Long approximateTotalCount) {
+        KeysetPaging paging = new KeysetPaging();
+        paging.setPageSize(pageSize);
+        paging.setPrevCursor(prevCursor);
+        paging.setNextCursor(nextCursor);
+        paging.setPrevEnabled(prevCursor != null);
+        paging.setNextEnabled(nextCursor != null);
+        paging.setApproximateTotalCount(approximateTotalCount);
+        return paging;
+    }
+
+    /**
+     * @return approximate count of pages or 0 if the count is unknown
+     */
+    public int getApproximateTotalPages() {
+        if (approximateTotalCount == null || pageSize <= 0) {
+            return 0;
+        }
+        return (int) ((approximateTotalCount + pageSize - 1) / pageSize);
+    }
+
+    public boolean isNextEnabled() {
+        return nextEnabled;
+    }
+
+    public void setNextEnabled(boolean nextEnabled) {
+        this.nextEnabled = nextEnabled;
+    }
+
+    public boolean isPrevEnabled() {
+        return prevEnabled;
+    }
+
+    public void setPrevEnabled(boolean prevEnabled) {
+        this.prevEnabled = prevEnabled;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public String getPrevCursor() {
+        return prevCursor;
+    }
+
+    public void setPrevCursor(String prevCursor) {
+        this.prevCursor = prevCursor;
+    }
+
+    public Long getApproximateTotalCount() {
+        return approximateTotalCount;
+    }
+
+    public void setApproximateTotalCount(Long approximateTotalCount) {
+        this.approximateTotalCount = approximateTotalCount;
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetPaging{" +
+                "nextEnabled=" + nextEnabled +
+                ", prevEnabled=" + prevEnabled +
+                ", pageSize=" + pageSize +
+                ", nextCursor='" + nextCursor + '\'' +
+                ", prevCursor='" + prevCursor + '\'' +
+                ", approximateTotalCount=" + approximateTotalCount +
+                '}';
+    }
+}
@@ -16,6 +16,8 @@ public interface UserRepository extends JpaRepository<User, Long>, QuerydslPredi
     List<User> findByLogin(String login);
     List<User> findUserByName(String name);
     List<User> findByEmail(String email);
+    boolean existsByLogin(String login);
+    boolean existsByEmail(String email);
     @Transactional
     void deleteByLogin(String login);
 }
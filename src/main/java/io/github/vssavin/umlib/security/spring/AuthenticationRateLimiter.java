@@ -0,0 +1,178 @@
+package io.github.vssavin.umlib.security.spring;
+
+import io.github.vssavin.umlib.config.UmConfig;
+import io.github.vssavin.umlib.metrics.NoOpUmMetrics;
+import io.github.vssavin.umlib.metrics.UmMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks failed authentication attempts per client address using a sliding window.
+ * If the count of failures within the window reaches the limit, the address is banned for the configured time
+ * in the {@link BanStore}. Entries without failures in the window are evicted,
+ * number of tracked addresses is limited.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+@Component
+public class AuthenticationRateLimiter {
+    private static final Logger log = LoggerFactory.getLogger(AuthenticationRateLimiter.class);
+
+    private final int maxFailures;
+    private final long windowMillis;
+    private final long banMillis;
+    private final int maxTrackedKeys;
+    private final Clock clock;
+    private final BanStore banStore;
+    private final UmMetrics umMetrics;
+
+    private final ConcurrentMap<String, FailureWindow> windows = new ConcurrentHashMap<>();
+    private final AtomicLong lastCleanupTime = new AtomicLong();
+
+    @Autowired
+    public AuthenticationRateLimiter(UmConfig umConfig, BanStore banStore, UmMetrics umMetrics) {
+        this(umConfig.getAuthMaxFailures(), TimeUnit.SECONDS.toMillis(umConfig.getAuthFailureWindowSeconds()),
+                TimeUnit.SECONDS.toMillis(umConfig.getAuthBanSeconds()), umConfig.getAuthMaxTrackedAddresses(),
+                Clock.systemUTC(), banStore, umMetrics);
+    }
+
+    public AuthenticationRateLimiter(int maxFailures, long windowMillis, long banMillis, int maxTrackedKeys,
+                                     Clock clock) {
+        this(maxFailures, windowMillis, banMillis, maxTrackedKeys, clock, new LocalBanStore(clock));
+    }
+
+    public AuthenticationRateLimiter(int maxFailures, long windowMillis, long banMillis, int maxTrackedKeys,
+                                     Clock clock, BanStore banStore) {
+        this(maxFailures, windowMillis, banMillis, maxTrackedKeys, clock, banStore, NoOpUmMetrics.INSTANCE);
+    }
+
+    public AuthenticationRateLimiter(int maxFailures, long windowMillis, long banMillis, int maxTrackedKeys,
+                                     Clock clock, BanStore banStore, UmMetrics umMetrics) {
+        this.maxFailures = Math.max(1, maxFailures);
+        this.windowMillis = windowMillis;
+        this.banMillis = banMillis;
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.clock = clock;
+        this.banStore = banStore;
+        this.umMetrics = umMetrics;
+        umMetrics.gauge("um.auth.bannedAddresses", this::getBannedKeysCount);
+        umMetrics.gauge("um.auth.trackedAddresses", this::getTrackedKeysCount);
+    }
+
+    /**
+     * Registers failed attempt for the key.
+     * @return true if the key is banned after this attempt
+     */
+    public boolean registerFailure(String key) {
+        long now = clock.millis();
+        cleanupIfNecessary(now);
+        if (!windows.containsKey(key) && windows.size() >= maxTrackedKeys) {
+            log.warn("Count of tracked addresses exceeds the limit ({}), failure of {} is not tracked",
+                    maxTrackedKeys, key);
+            return false;
+        }
+
+        boolean[] limitReached = new boolean[1];
+        windows.compute(key, (k, current) -> {
+            FailureWindow failureWindow = current != null ? current : new FailureWindow(maxFailures);
+            limitReached[0] = failureWindow.registerFailure(now, windowMillis);
+            return failureWindow;
+        });
+
+        if (limitReached[0]) {
+            banStore.ban(key, now + banMillis);
+            umMetrics.increment("um.auth.bans");
+            log.info("IP {} has been banned!", key);
+        }
+        return limitReached[0];
+    }
+
+    public boolean isBanned(String key) {
+        return banStore.isBanned(key);
+    }
+
+    public void reset(String key) {
+        windows.remove(key);
+        banStore.unban(key);
+    }
+
+    public int getTrackedKeysCount() {
+        return windows.size();
+    }
+
+    public int getBannedKeysCount() {
+        return banStore.getBannedCount();
+    }
+
+    /**
+     * Removes entries without failures in the window.
+     * @return count of removed entries
+     */
+    public int evictExpired() {
+        long now = clock.millis();
+        int removed = 0;
+        for (String key : windows.keySet()) {
+            FailureWindow window = windows.computeIfPresent(key,
+                    (k, current) -> current.isActual(now, windowMillis) ? current : null);
+            if (window == null) removed++;
+        }
+        return removed;
+    }
+
+    private void cleanupIfNecessary(long now) {
+        long lastCleanup = lastCleanupTime.get();
+        boolean cleanupTime = now - lastCleanup >= Math.min(windowMillis, TimeUnit.MINUTES.toMillis(1));
+        if ((cleanupTime || windows.size() >= maxTrackedKeys) && lastCleanupTime.compareAndSet(lastCleanup, now)) {
+            int removed = evictExpired();
+            if (removed > 0) log.debug("Removed {} expired authentication failure entries", removed);
+        }
+    }
+
+    /**
+     * Timestamps of the last failures stored in the ring buffer.
+     */
+    private static class FailureWindow {
+        private final long[] failureTimes;
+        private int head;
+        private int count;
+
+        private FailureWindow(int capacity) {
+            this.failureTimes = new long[capacity];
+        }
+
+        /**
+         * @return true if the count of failures within the window reaches the limit
+         */
+        private synchronized boolean registerFailure(long now, long windowMillis) {
+            removeOutdated(now, windowMillis);
+            failureTimes[(head + count) % failureTimes.length] = now;
+            count++;
+            if (count >= failureTimes.length) {
+                head = 0;
+                count = 0;
+                return true;
+            }
+            return false;
+        }
+
+        private synchronized boolean isActual(long now, long windowMillis) {
+            removeOutdated(now, windowMillis);
+            return count > 0;
+        }
+
+        private void removeOutdated(long now, long windowMillis) {
+            while (count > 0 && failureTimes[head] <= now - windowMillis) {
+                head = (head + 1) % failureTimes.length;
+                count--;
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.vssavin.umlib.security.spring;
+
+/**
+ * Storage of banned client addresses.
+ * {@link #isBanned(String)} is called for every request, so implementations should answer it from memory.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public interface BanStore {
+    void ban(String address, long expireTime);
+    void unban(String address);
+    boolean isBanned(String address);
+    int getBannedCount();
+}
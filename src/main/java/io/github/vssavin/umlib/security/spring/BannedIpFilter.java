@@ -19,10 +19,17 @@ import java.io.IOException;
 @Component
 public class BannedIpFilter extends GenericFilterBean {
     private static final Logger LOG = LoggerFactory.getLogger(BannedIpFilter.class);
+
+    private final AuthenticationRateLimiter rateLimiter;
+
+    public BannedIpFilter(AuthenticationRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
         String userIp = request.getRemoteAddr();
-        if (CustomAuthenticationFailureHandler.isBannedIp(userIp)) {
+        if (rateLimiter.isBanned(userIp)) {
             LOG.info("Trying to access from banned IP: " + userIp);
             HttpServletResponse httpResponse = (HttpServletResponse) response;
             httpResponse.sendError(HttpStatus.FORBIDDEN.value(), "Доступ запрещен");
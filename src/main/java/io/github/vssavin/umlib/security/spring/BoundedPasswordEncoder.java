@@ -0,0 +1,174 @@
+package io.github.vssavin.umlib.security.spring;
+
+import io.github.vssavin.umlib.exception.PasswordEncoderBusyException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs hashing of the delegate encoder in the dedicated pool of threads (by default one per CPU),
+ * so CPU-bound hashing does not occupy all request threads during login bursts.
+ * Tasks wait in the bounded queue, when the queue is full the caller gets {@link PasswordEncoderBusyException}
+ * immediately instead of waiting. Batch encoding may occupy only half of the queue, the rest is left for logins.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final Semaphore batchPermits;
+
+    private final LongAdder hashCount = new LongAdder();
+    private final LongAdder hashTimeNanos = new LongAdder();
+    private final LongAccumulator maxHashTimeNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long timeoutMillis) {
+        this.delegate = delegate;
+        this.timeoutMillis = timeoutMillis;
+        int threadsCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.batchPermits = new Semaphore(Math.max(1, queueCapacity) / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threadsCount, threadsCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "um-password-encoder-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return await(submit(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(submit(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Encodes passwords in parallel. Count of queued and running batch tasks is limited by half of the queue
+     * capacity, so logins are not rejected during large batches. Passwords over the limit are encoded
+     * in the calling thread, so large batches are slowed down instead of being rejected.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        for (CharSequence rawPassword : rawPasswords) {
+            Callable<String> task = timed(() -> delegate.encode(rawPassword));
+            Future<String> future = null;
+            if (batchPermits.tryAcquire()) {
+                try {
+                    future = executor.submit(() -> {
+                        try {
+                            return task.call();
+                        } finally {
+                            batchPermits.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    batchPermits.release();
+                }
+            }
+            if (future == null) {
+                FutureTask<String> callerTask = new FutureTask<>(task);
+                callerTask.run();
+                future = callerTask;
+            }
+            futures.add(future);
+        }
+        List<String> encoded = new ArrayList<>(futures.size());
+        for (Future<String> future : futures) {
+            encoded.add(await(future));
+        }
+        return encoded;
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getHashCount() {
+        return hashCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public double getAverageHashTimeMillis() {
+        long count = hashCount.sum();
+        return count == 0 ? 0 : hashTimeNanos.sum() / 1_000_000.0 / count;
+    }
+
+    public double getMaxHashTimeMillis() {
+        return maxHashTimeNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(timed(task));
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            log.warn("Password encoder queue is full ({} tasks), request is rejected", getQueueSize());
+            throw new PasswordEncoderBusyException("Password encoder is busy, try again later", e);
+        }
+    }
+
+    private <T> Callable<T> timed(Callable<T> task) {
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                return task.call();
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                hashCount.increment();
+                hashTimeNanos.add(elapsed);
+                maxHashTimeNanos.accumulate(elapsed);
+            }
+        };
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCount.increment();
+            throw new PasswordEncoderBusyException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordEncoderBusyException("Password hashing interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+}
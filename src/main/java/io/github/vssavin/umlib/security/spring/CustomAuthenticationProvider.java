@@ -1,11 +1,13 @@
 package io.github.vssavin.umlib.security.spring;
 
 import io.github.vssavin.umlib.entity.User;
-import io.github.vssavin.umlib.service.SecureService;
+import io.github.vssavin.umlib.exception.PasswordEncoderBusyException;
+import io.github.vssavin.umlib.metrics.UmMetrics;
 import io.github.vssavin.umlib.service.UserService;
-import io.github.vssavin.umlib.utils.UmUtil;
+import io.github.vssavin.umlib.service.impl.SecureKeyManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
@@ -26,33 +28,73 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
 
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
-    private final SecureService secureService;
+    private final SecureKeyManager secureKeyManager;
+    private final PasswordHashUpgrader passwordHashUpgrader;
+    private final UmMetrics umMetrics;
 
     @Autowired
     public CustomAuthenticationProvider(UserService userService, PasswordEncoder passwordEncoder,
-                                        UmUtil umUtil) {
-        this.secureService = umUtil.getAuthService();
+                                        SecureKeyManager secureKeyManager, PasswordHashUpgrader passwordHashUpgrader,
+                                        UmMetrics umMetrics) {
+        this.secureKeyManager = secureKeyManager;
         this.userService = userService;
         this.passwordEncoder = passwordEncoder;
+        this.passwordHashUpgrader = passwordHashUpgrader;
+        this.umMetrics = umMetrics;
     }
 
     @Override
     public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        long startTime = umMetrics.startTimer();
+        try {
+            return doAuthenticate(authentication);
+        } catch (AuthenticationException e) {
+            umMetrics.increment("um.auth.failures");
+            throw e;
+        } finally {
+            umMetrics.stopTimer("um.auth.authenticate", startTime);
+        }
+    }
+
+    private Authentication doAuthenticate(Authentication authentication) {
         Object credentials = authentication.getCredentials();
         Object userName = authentication.getPrincipal();
         if (credentials != null) {
-            User user = userService.getUserByLogin(userName.toString());
+            long lookupStartTime = umMetrics.startTimer();
+            User user;
+            try {
+                user = userService.getUserByLogin(userName.toString());
+            } finally {
+                umMetrics.stopTimer("um.auth.userLookup", lookupStartTime);
+            }
             if (user != null) {
                 Object details = authentication.getDetails();
                 String addr = "";
                 if (details instanceof WebAuthenticationDetails) {
                     addr = ((WebAuthenticationDetails) details).getRemoteAddress();
                 }
-                String password = secureService.decrypt(credentials.toString(), secureService.getSecureKey(addr));
-                if (passwordEncoder.matches(password, user.getPassword())) {
+                String password;
+                long decryptStartTime = umMetrics.startTimer();
+                try {
+                    password = secureKeyManager.decrypt(credentials.toString(), addr,
+                            SecureKeyManager.getRequestKeyId());
+                } finally {
+                    umMetrics.stopTimer("um.auth.decrypt", decryptStartTime);
+                }
+                boolean passwordMatches;
+                long matchStartTime = umMetrics.startTimer();
+                try {
+                    passwordMatches = passwordEncoder.matches(password, user.getPassword());
+                } catch (PasswordEncoderBusyException e) {
+                    throw new AuthenticationServiceException(e.getMessage(), e);
+                } finally {
+                    umMetrics.stopTimer("um.auth.passwordMatch", matchStartTime);
+                }
+                if (passwordMatches) {
+                    passwordHashUpgrader.upgradeIfNecessary(user, password);
                     List<GrantedAuthority> authorities = new ArrayList<>();
                     authorities.add(new SimpleGrantedAuthority(user.getAuthority()));
-                    return new CustomUsernamePasswordAuthenticationToken(authentication.getPrincipal(),
+                    return new CustomUsernamePasswordAuthenticationToken(new UserPrincipal(user),
                             password, authorities);
                 }
                 else {
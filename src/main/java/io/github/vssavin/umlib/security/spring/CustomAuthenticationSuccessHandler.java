@@ -22,9 +22,11 @@ import java.util.Date;
 public class CustomAuthenticationSuccessHandler implements AuthenticationSuccessHandler {
 
     private final UserService userService;
+    private final JwtTokenService tokenService;
 
-    public CustomAuthenticationSuccessHandler(UserService userService) {
+    public CustomAuthenticationSuccessHandler(UserService userService, JwtTokenService tokenService) {
         this.userService = userService;
+        this.tokenService = tokenService;
     }
 
     @Override
@@ -32,25 +34,42 @@ public class CustomAuthenticationSuccessHandler implements AuthenticationSuccess
                                         Authentication authentication) throws IOException {
         String successUrl = UmConfig.successUrl;
         User user = null;
-        try {
+        String login = null;
+        if (authentication.getPrincipal() instanceof DefaultOAuth2User) {
             OAuth2User oAuth2User = (DefaultOAuth2User)authentication.getPrincipal();
             user = userService.processOAuthPostLogin(oAuth2User);
             if (user.getAuthority().equals(Role.ROLE_ADMIN.name())) successUrl = UmConfig.adminSuccessUrl;
-        } catch (ClassCastException e) {
-            //ignore, it's ok
+            login = user.getLogin();
         }
 
-        if (user == null) {
-            user = userService.getUserByLogin(authentication.getPrincipal().toString());
+        Object principal = authentication.getPrincipal();
+        if (user == null && principal instanceof UserPrincipal) {
+            UserPrincipal userPrincipal = (UserPrincipal) principal;
+            if (Role.ROLE_ADMIN.name().equals(userPrincipal.getAuthority())) successUrl = UmConfig.adminSuccessUrl;
+            login = userPrincipal.getLogin();
+            //principal carries the user data required for the token, so the user is not queried again
+            user = userPrincipal.toUser();
+            if (userPrincipal.isExpired()) {
+                userService.deleteUser(user);
+                successUrl = UmConfig.LOGIN_URL + "?error=true";
+                login = null;
+            }
+        } else if (user == null) {
+            user = userService.findUserByLogin(principal.toString()).orElse(null);
             if (user != null) {
                 if (user.getAuthority().equals(Role.ROLE_ADMIN.name())) successUrl = UmConfig.adminSuccessUrl;
+                login = user.getLogin();
                 if (user.getExpirationDate().before(new Date())) {
                     userService.deleteUser(user);
                     successUrl = UmConfig.LOGIN_URL + "?error=true";
+                    login = null;
                 }
             }
         }
 
+        if (tokenService.isEnabled() && login != null && user != null) {
+            tokenService.addTokenCookie(request, response, tokenService.createToken(user));
+        }
 
         String lang = request.getParameter("lang");
         String delimiter = "?";
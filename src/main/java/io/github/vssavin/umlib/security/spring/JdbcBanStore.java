@@ -0,0 +1,170 @@
+package io.github.vssavin.umlib.security.spring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ban store which shares bans between application nodes using the banned_ips table of the um database.
+ * Bans are checked using local near-cache, which is refreshed in the background
+ * with rows changed since the previous refresh. Bans expired long ago are removed from the table
+ * much less often than the near-cache is refreshed. Update time of the rows and the refresh watermark are taken
+ * from the database clock, so clock drift between the nodes does not hide bans from the refresh.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class JdbcBanStore implements BanStore, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(JdbcBanStore.class);
+    private static final long PURGE_DELAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final long PURGE_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalBanStore nearCache;
+    private final Clock clock;
+    private final long overlapMillis;
+    private final ScheduledExecutorService refresher;
+
+    private volatile long lastUpdateTime;
+    private volatile long lastPurgeTime;
+
+    public JdbcBanStore(DataSource dataSource, long refreshIntervalMillis) {
+        this(dataSource, refreshIntervalMillis, Clock.systemUTC());
+    }
+
+    public JdbcBanStore(DataSource dataSource, long refreshIntervalMillis, Clock clock) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.clock = clock;
+        this.nearCache = new LocalBanStore(clock);
+        //rows committed by other nodes after the previous refresh may have update time slightly behind it
+        this.overlapMillis = refreshIntervalMillis * 2;
+        loadActualBans();
+        if (refreshIntervalMillis > 0) {
+            this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "um-ban-store-refresher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.refresher.scheduleWithFixedDelay(this::refreshSafely, refreshIntervalMillis, refreshIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.refresher = null;
+        }
+    }
+
+    @Override
+    public void ban(String address, long expireTime) {
+        nearCache.ban(address, expireTime);
+        save(address, expireTime);
+    }
+
+    @Override
+    public void unban(String address) {
+        nearCache.unban(address);
+        //keep the row with expired ban, so other nodes receive the change
+        save(address, clock.millis());
+    }
+
+    @Override
+    public boolean isBanned(String address) {
+        return nearCache.isBanned(address);
+    }
+
+    @Override
+    public int getBannedCount() {
+        return nearCache.getBannedCount();
+    }
+
+    /**
+     * Loads bans changed since the previous refresh and removes bans expired long ago
+     * if the purge interval has passed since the previous purge.
+     */
+    public void refresh() {
+        long since = Math.max(0, lastUpdateTime - overlapMillis);
+        long databaseTime = getDatabaseTime();
+        Map<String, Long> changedBans = new HashMap<>();
+        jdbcTemplate.query("select address, ban_expire_time from banned_ips where updated_at >= ?",
+                rs -> changedBans.put(rs.getString("address"), rs.getTimestamp("ban_expire_time").getTime()),
+                new Timestamp(since));
+        nearCache.putAll(changedBans);
+        lastUpdateTime = databaseTime;
+        long now = clock.millis();
+        if (now - lastPurgeTime >= PURGE_INTERVAL_MILLIS) {
+            lastPurgeTime = now;
+            purgeExpired(now);
+        }
+    }
+
+    /**
+     * Removes bans expired more than a day ago.
+     */
+    public int purgeExpired(long now) {
+        return jdbcTemplate.update("delete from banned_ips where ban_expire_time < ?",
+                new Timestamp(now - PURGE_DELAY_MILLIS));
+    }
+
+    @Override
+    public void close() {
+        if (refresher != null) refresher.shutdownNow();
+    }
+
+    private void loadActualBans() {
+        try {
+            long databaseTime = getDatabaseTime();
+            Map<String, Long> bans = new HashMap<>();
+            jdbcTemplate.query("select address, ban_expire_time from banned_ips where ban_expire_time > ?",
+                    rs -> bans.put(rs.getString("address"), rs.getTimestamp("ban_expire_time").getTime()),
+                    new Timestamp(clock.millis()));
+            nearCache.putAll(bans);
+            lastUpdateTime = databaseTime;
+        } catch (Exception e) {
+            log.error("Loading banned addresses error: ", e);
+        }
+    }
+
+    private void save(String address, long expireTime) {
+        Timestamp expire = new Timestamp(expireTime);
+        try {
+            int updated = jdbcTemplate.update(
+                    "update banned_ips set ban_expire_time = ?, updated_at = CURRENT_TIMESTAMP where address = ?",
+                    expire, address);
+            if (updated == 0) {
+                try {
+                    jdbcTemplate.update("insert into banned_ips(address, ban_expire_time, updated_at) " +
+                                    "values (?, ?, CURRENT_TIMESTAMP)", address, expire);
+                } catch (DuplicateKeyException e) {
+                    jdbcTemplate.update(
+                            "update banned_ips set ban_expire_time = ?, updated_at = CURRENT_TIMESTAMP " +
+                                    "where address = ?", expire, address);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Saving ban of " + address + " error: ", e);
+        }
+    }
+
+    /**
+     * @return current time of the database, which is taken before reading the changed rows
+     */
+    private long getDatabaseTime() {
+        Timestamp databaseTime = jdbcTemplate.queryForObject("select CURRENT_TIMESTAMP", Timestamp.class);
+        return databaseTime != null ? databaseTime.getTime() : clock.millis();
+    }
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("Refreshing banned addresses error: ", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.vssavin.umlib.security.spring;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Authenticates requests of the stateless session mode using the token from the cookie or the header.
+ * Invalid or expired token cookie is removed.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private final JwtTokenService tokenService;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+
+    public JwtAuthenticationFilter(JwtTokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Authentication current = SecurityContextHolder.getContext().getAuthentication();
+        if (current == null || current instanceof AnonymousAuthenticationToken) {
+            String token = tokenService.resolveToken(request);
+            if (token != null) {
+                Authentication authentication = tokenService.parseToken(token);
+                if (authentication instanceof AbstractAuthenticationToken) {
+                    ((AbstractAuthenticationToken) authentication).setDetails(detailsSource.buildDetails(request));
+                }
+                if (authentication != null) {
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                } else {
+                    tokenService.clearTokenCookie(request, response);
+                }
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
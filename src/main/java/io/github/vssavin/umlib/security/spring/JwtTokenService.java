@@ -0,0 +1,210 @@
+package io.github.vssavin.umlib.security.spring;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.github.vssavin.umlib.config.UmConfig;
+import io.github.vssavin.umlib.entity.User;
+import io.github.vssavin.umlib.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.text.ParseException;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues and validates signed tokens (HS256) of the stateless session mode.
+ * Token carries login of the user and the fingerprint of the user's credentials version and authority,
+ * so the request is authenticated without session. Token is valid only while the fingerprint matches
+ * the user from the user service (read-through cache), so the token is revoked when the user is deleted,
+ * the password or the authority is changed. Re-encoding of the password hash does not change the credentials
+ * version, so it does not revoke the token. Token is sent in the cookie or in the Authorization header.
+ * Logout only removes the cookie, token copied from the cookie or sent in the header stays valid until expiration.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+@Component
+public class JwtTokenService {
+    private static final Logger log = LoggerFactory.getLogger(JwtTokenService.class);
+    private static final String FINGERPRINT_CLAIM = "fgp";
+    private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+    private static final int FINGERPRINT_LENGTH = 22;
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final int MIN_SECRET_LENGTH = 32;
+
+    private final UserService userService;
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final String cookieName;
+    private final Clock clock;
+    private final JWSSigner signer;
+    private final JWSVerifier verifier;
+    private final SecretKeySpec fingerprintKey;
+
+    @Autowired
+    public JwtTokenService(UmConfig umConfig, UserService userService) {
+        this(userService, umConfig.isStatelessSession(), umConfig.getJwtSecret(),
+                TimeUnit.SECONDS.toMillis(umConfig.getJwtTtlSeconds()), umConfig.getJwtCookieName(),
+                Clock.systemUTC());
+    }
+
+    public JwtTokenService(UserService userService, boolean enabled, String secret, long ttlMillis, String cookieName,
+                           Clock clock) {
+        this.userService = userService;
+        this.enabled = enabled;
+        this.ttlMillis = ttlMillis;
+        this.cookieName = cookieName;
+        this.clock = clock;
+        byte[] key = createKey(secret, enabled);
+        try {
+            this.signer = new MACSigner(key);
+            this.verifier = new MACVerifier(key);
+            this.fingerprintKey = new SecretKeySpec(key, FINGERPRINT_ALGORITHM);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Creating token signer error", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getCookieName() {
+        return cookieName;
+    }
+
+    public String createToken(User user) {
+        long now = clock.millis();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(user.getLogin())
+                .claim(FINGERPRINT_CLAIM, getFingerprint(user))
+                .issueTime(new Date(now))
+                .expirationTime(new Date(now + ttlMillis))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+        try {
+            jwt.sign(signer);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Signing token error", e);
+        }
+        return jwt.serialize();
+    }
+
+    /**
+     * @return authentication of the token owner or null if the token is malformed, not signed by this service,
+     * expired or revoked
+     */
+    public Authentication parseToken(String token) {
+        try {
+            SignedJWT jwt = SignedJWT.parse(token);
+            if (!JWSAlgorithm.HS256.equals(jwt.getHeader().getAlgorithm()) || !jwt.verify(verifier)) return null;
+            JWTClaimsSet claims = jwt.getJWTClaimsSet();
+            Date expirationTime = claims.getExpirationTime();
+            if (expirationTime == null || expirationTime.getTime() <= clock.millis()) return null;
+            String login = claims.getSubject();
+            String fingerprint = claims.getStringClaim(FINGERPRINT_CLAIM);
+            if (login == null || fingerprint == null) return null;
+            User user = userService.findUserByLogin(login).orElse(null);
+            if (user == null || !fingerprint.equals(getFingerprint(user))) return null;
+            return new UsernamePasswordAuthenticationToken(new UserPrincipal(user), null,
+                    Collections.singletonList(new SimpleGrantedAuthority(user.getAuthority())));
+        } catch (ParseException | JOSEException e) {
+            log.debug("Invalid token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return token from the Authorization header or from the token cookie, null if the request has no token
+     */
+    public String resolveToken(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            return header.substring(BEARER_PREFIX.length()).trim();
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (cookieName.equals(cookie.getName())) return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    public void addTokenCookie(HttpServletRequest request, HttpServletResponse response, String token) {
+        response.addCookie(createCookie(request, token, (int) TimeUnit.MILLISECONDS.toSeconds(ttlMillis)));
+    }
+
+    public void clearTokenCookie(HttpServletRequest request, HttpServletResponse response) {
+        response.addCookie(createCookie(request, "", 0));
+    }
+
+    private Cookie createCookie(HttpServletRequest request, String value, int maxAge) {
+        Cookie cookie = new Cookie(cookieName, value);
+        cookie.setPath(request.getContextPath() + "/");
+        cookie.setHttpOnly(true);
+        cookie.setSecure(request.isSecure());
+        cookie.setMaxAge(maxAge);
+        return cookie;
+    }
+
+    /**
+     * @return keyed fingerprint of the user data, change of which revokes the token
+     */
+    private String getFingerprint(User user) {
+        String data = user.getCredentialsVersion() + "\n" + user.getAuthority();
+        try {
+            Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+            mac.init(fingerprintKey);
+            byte[] digest = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, FINGERPRINT_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Calculating token fingerprint error", e);
+        }
+    }
+
+    private static byte[] createKey(String secret, boolean enabled) {
+        if (secret == null || secret.isEmpty()) {
+            if (enabled) {
+                log.warn("Token secret (um.jwt.secret) is not specified, random secret is used: " +
+                        "tokens are not accepted by other nodes and after restart");
+            }
+            byte[] key = new byte[MIN_SECRET_LENGTH];
+            new SecureRandom().nextBytes(key);
+            return key;
+        }
+        byte[] key = secret.getBytes(StandardCharsets.UTF_8);
+        if (key.length >= MIN_SECRET_LENGTH) return key;
+        try {
+            //HS256 requires at least 256 bit key
+            return MessageDigest.getInstance("SHA-256").digest(key);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
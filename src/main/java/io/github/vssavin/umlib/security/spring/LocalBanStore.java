@@ -0,0 +1,54 @@
+package io.github.vssavin.umlib.security.spring;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ban store which keeps bans in memory of the current node.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class LocalBanStore implements BanStore {
+
+    private final Map<String, Long> banExpireTimes = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public LocalBanStore() {
+        this(Clock.systemUTC());
+    }
+
+    public LocalBanStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public void ban(String address, long expireTime) {
+        banExpireTimes.merge(address, expireTime, Math::max);
+    }
+
+    @Override
+    public void unban(String address) {
+        banExpireTimes.remove(address);
+    }
+
+    @Override
+    public boolean isBanned(String address) {
+        Long expireTime = banExpireTimes.get(address);
+        if (expireTime == null) return false;
+        if (expireTime > clock.millis()) return true;
+        banExpireTimes.remove(address, expireTime);
+        return false;
+    }
+
+    @Override
+    public int getBannedCount() {
+        long now = clock.millis();
+        banExpireTimes.values().removeIf(expireTime -> expireTime <= now);
+        return banExpireTimes.size();
+    }
+
+    void putAll(Map<String, Long> bans) {
+        banExpireTimes.putAll(bans);
+    }
+}
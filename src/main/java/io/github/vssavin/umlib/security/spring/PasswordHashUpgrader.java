@@ -0,0 +1,151 @@
+package io.github.vssavin.umlib.security.spring;
+
+import io.github.vssavin.umlib.config.UmConfig;
+import io.github.vssavin.umlib.entity.User;
+import io.github.vssavin.umlib.pagination.ApproximateCount;
+import io.github.vssavin.umlib.service.UserCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Re-encodes password hashes with outdated algorithm or cost after successful login.
+ * Hashing and saving are performed in the background thread, so login response is not delayed.
+ * The new hash is saved only if the stored hash has not been changed in the meantime.
+ * Queued passwords are kept in the small queue as char arrays, which are cleared once the password is hashed.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+@Component
+public class PasswordHashUpgrader {
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashUpgrader.class);
+    private static final int QUEUE_CAPACITY = 100;
+    private static final long LEGACY_COUNT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Set<Long> pendingUserIds = ConcurrentHashMap.newKeySet();
+    private final ApproximateCount legacyHashCount;
+
+    private final LongAdder upgradedCount = new LongAdder();
+    private final LongAdder skippedCount = new LongAdder();
+
+    @Autowired
+    public PasswordHashUpgrader(PasswordEncoder passwordEncoder, UserCache userCache, UmConfig umConfig,
+                                @Qualifier("umDataSource") DataSource umDataSource) {
+        this(passwordEncoder, userCache, umDataSource, umConfig.getPasswordEncoderStrength(),
+                umConfig.isPasswordEncoderDelegating());
+    }
+
+    public PasswordHashUpgrader(PasswordEncoder passwordEncoder, UserCache userCache, DataSource umDataSource,
+                                int encoderStrength, boolean delegatingEncoder) {
+        this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
+        this.jdbcTemplate = new JdbcTemplate(umDataSource);
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "um-password-hash-upgrader");
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, executor) -> {
+                    skippedCount.increment();
+                    throw new RejectedExecutionException("Password hash upgrade queue is full");
+                });
+        String cost = String.format("%02d", encoderStrength);
+        String legacyCondition = delegatingEncoder ?
+                "password not like '{bcrypt}%' or substring(password, 13, 2) < ?" :
+                "password like '$2%' and substring(password, 5, 2) < ?";
+        this.legacyHashCount = new ApproximateCount(LEGACY_COUNT_TTL_MILLIS,
+                () -> countLegacyHashes(legacyCondition, cost));
+    }
+
+    /**
+     * Schedules upgrade of the user password hash if the hash is outdated.
+     * @param rawPassword password which has just matched the user hash
+     * @return true if the upgrade is scheduled
+     */
+    public boolean upgradeIfNecessary(User user, String rawPassword) {
+        String currentHash = user.getPassword();
+        if (currentHash == null || currentHash.isEmpty() || !passwordEncoder.upgradeEncoding(currentHash) ||
+                !pendingUserIds.add(user.getId())) {
+            return false;
+        }
+        char[] password = rawPassword.toCharArray();
+        try {
+            executor.execute(() -> {
+                try {
+                    upgrade(user, password, currentHash);
+                } finally {
+                    Arrays.fill(password, '\0');
+                    pendingUserIds.remove(user.getId());
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            Arrays.fill(password, '\0');
+            pendingUserIds.remove(user.getId());
+            return false;
+        }
+    }
+
+    /**
+     * @return count of users with outdated password hashes, calculated at most once a minute
+     */
+    public long getLegacyHashCount() {
+        return legacyHashCount.get();
+    }
+
+    public long getUpgradedCount() {
+        return upgradedCount.sum();
+    }
+
+    /**
+     * @return count of upgrades which are not performed because of the full queue or a concurrent password change
+     */
+    public long getSkippedCount() {
+        return skippedCount.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void upgrade(User user, char[] rawPassword, String currentHash) {
+        try {
+            String newHash = passwordEncoder.encode(CharBuffer.wrap(rawPassword));
+            int updated = jdbcTemplate.update("update users set password = ? where id = ? and password = ?",
+                    newHash, user.getId(), currentHash);
+            if (updated > 0) {
+                upgradedCount.increment();
+                log.debug("Password hash of user {} has been upgraded", user.getLogin());
+            } else {
+                skippedCount.increment();
+            }
+            userCache.invalidate(user);
+        } catch (Exception e) {
+            skippedCount.increment();
+            log.warn("Upgrading password hash of user {} error: {}", user.getLogin(), e.getMessage());
+        }
+    }
+
+    private long countLegacyHashes(String legacyCondition, String cost) {
+        Long count = jdbcTemplate.queryForObject(
+                "select count(*) from users where password <> '' and (" + legacyCondition + ")", Long.class, cost);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.vssavin.umlib.security.spring;
+
+import io.github.vssavin.umlib.entity.User;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Principal of the authenticated user.
+ * Carries user data loaded during authentication, so it is not required to query database again
+ * for the authenticated user's id, name or authority. Authority of the principal is the one granted at login,
+ * admin access checks use the actual user instead.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class UserPrincipal implements AuthenticatedPrincipal, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final String login;
+    private final String name;
+    private final String email;
+    private final String authority;
+    private final Date expirationDate;
+    private final long credentialsVersion;
+
+    public UserPrincipal(User user) {
+        this.id = user.getId();
+        this.login = user.getLogin();
+        this.name = user.getName();
+        this.email = user.getEmail();
+        this.authority = user.getAuthority();
+        this.expirationDate = user.getExpirationDate() != null ?
+                new Date(user.getExpirationDate().getTime()) : null;
+        this.credentialsVersion = user.getCredentialsVersion();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getUserName() {
+        return name;
+    }
+
+    public String getAuthority() {
+        return authority;
+    }
+
+    public Date getExpirationDate() {
+        return expirationDate != null ? new Date(expirationDate.getTime()) : null;
+    }
+
+    public long getCredentialsVersion() {
+        return credentialsVersion;
+    }
+
+    public boolean isExpired() {
+        return expirationDate != null && expirationDate.before(new Date());
+    }
+
+    public User toUser() {
+        return User.builder().id(id).login(login).name(name).email(email).authority(authority)
+                .expirationDate(getExpirationDate()).credentialsVersion(credentialsVersion).build();
+    }
+
+    /**
+     * Returns login of the user, since login is used as the user name in security context.
+     */
+    @Override
+    public String getName() {
+        return login;
+    }
+
+    @Override
+    public String toString() {
+        return login;
+    }
+}
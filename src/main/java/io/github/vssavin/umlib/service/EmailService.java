@@ -4,5 +4,16 @@ package io.github.vssavin.umlib.service;
  * @author vssavin on 13.01.22
  */
 public interface EmailService {
+    /**
+     * Sends or queues the message. If the message is queued (um.email.async), sending errors are only logged,
+     * MailException is thrown only if the message can not be queued.
+     */
     void sendSimpleMessage(String destinationEmail, String subject, String text);
+
+    /**
+     * Sends message containing sensitive data (e.g. password), which must not be persisted.
+     */
+    default void sendSensitiveMessage(String destinationEmail, String subject, String text) {
+        sendSimpleMessage(destinationEmail, subject, text);
+    }
 }
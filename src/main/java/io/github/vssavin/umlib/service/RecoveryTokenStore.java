@@ -0,0 +1,17 @@
+package io.github.vssavin.umlib.service;
+
+import io.github.vssavin.umlib.dto.RecoveryToken;
+
+/**
+ * Storage of password recovery tokens.
+ * Only one token per user is kept: issuing a new token for the user removes the previous one.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public interface RecoveryTokenStore {
+    RecoveryToken create(Long userId);
+    RecoveryToken get(String token);
+    void remove(String token);
+    int removeExpired();
+    int size();
+}
@@ -0,0 +1,22 @@
+package io.github.vssavin.umlib.service;
+
+import io.github.vssavin.umlib.entity.User;
+
+/**
+ * Read-through cache of users used by {@link UserService} lookups.
+ * Lookup methods return null if there is no actual entry for the key.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public interface UserCache {
+    User getById(Long id);
+    User getByLogin(String login);
+    User getByEmail(String email);
+    void put(User user);
+    void invalidate(User user);
+    void invalidateAll();
+    int size();
+    long getHitCount();
+    long getMissCount();
+    long getEvictionCount();
+}
@@ -1,14 +1,22 @@
 package io.github.vssavin.umlib.service;
 
+import io.github.vssavin.umlib.dto.UserDto;
 import io.github.vssavin.umlib.dto.UserFilter;
+import io.github.vssavin.umlib.dto.UserImportFormat;
+import io.github.vssavin.umlib.dto.UserImportResult;
+import io.github.vssavin.umlib.dto.UserView;
 import io.github.vssavin.umlib.entity.Role;
 import io.github.vssavin.umlib.entity.User;
+import io.github.vssavin.umlib.pagination.KeysetPaged;
 import io.github.vssavin.umlib.pagination.Paged;
 import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 
+import java.io.Reader;
+import java.io.Writer;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * @author vssavin on 18.12.2021
@@ -16,12 +24,22 @@ import java.util.Map;
 @Service
 public interface UserService {
     Paged<User> getUsers(UserFilter userFilter, int pageNumber, int size);
+    KeysetPaged<User> getUsers(UserFilter userFilter, String cursor, int size);
+    Paged<UserView> getUserViews(UserFilter userFilter, int pageNumber, int size);
+    KeysetPaged<UserView> getUserViews(UserFilter userFilter, String cursor, int size);
+    Optional<UserDto> findUserDtoById(Long id);
+    Optional<UserDto> findUserDtoByLogin(String login);
     User getUserById(Long id);
     User addUser(User user);
     User updateUser(User user);
     User getUserByName(String name);
     User getUserByLogin(String login);
     User getUserByEmail(String email);
+    Optional<User> findUserByName(String name);
+    Optional<User> findUserByLogin(String login);
+    Optional<User> findUserByEmail(String email);
+    boolean existsByLogin(String login);
+    boolean existsByEmail(String email);
     void deleteUser(User user);
     User registerUser(String login, String username, String password, String email, Role role);
     void confirmUser(String login, String verificationId, boolean isAdminUser);
@@ -31,4 +49,6 @@ public interface UserService {
     boolean accessGrantedForRegistration(Role role, String authorizedName);
     User processOAuthPostLogin(OAuth2User oAuth2User);
     User getUserByOAuth2Token(OAuth2AuthenticationToken token);
+    UserImportResult importUsers(Reader reader, UserImportFormat format);
+    void exportUsers(Writer writer, UserFilter userFilter);
 }
@@ -0,0 +1,55 @@
+package io.github.vssavin.umlib.service.impl;
+
+import io.github.vssavin.umlib.service.RecoveryTokenStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base recovery token store which periodically removes expired tokens in the background.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public abstract class AbstractRecoveryTokenStore implements RecoveryTokenStore, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(AbstractRecoveryTokenStore.class);
+
+    protected final long ttlMillis;
+    private final ScheduledExecutorService sweeper;
+
+    protected AbstractRecoveryTokenStore(long ttlMillis, long sweepIntervalSeconds) {
+        this.ttlMillis = ttlMillis;
+        if (sweepIntervalSeconds > 0) {
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "um-recovery-token-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalSeconds, sweepIntervalSeconds,
+                    TimeUnit.SECONDS);
+        } else {
+            this.sweeper = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (sweeper != null) sweeper.shutdownNow();
+    }
+
+    protected String generateToken() {
+        return UUID.randomUUID().toString();
+    }
+
+    private void sweep() {
+        try {
+            int removed = removeExpired();
+            if (removed > 0) log.debug("Removed {} expired recovery tokens", removed);
+        } catch (Exception e) {
+            log.error("Removing expired recovery tokens error: ", e);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package io.github.vssavin.umlib.service.impl;
+
+import io.github.vssavin.umlib.metrics.NoOpUmMetrics;
+import io.github.vssavin.umlib.metrics.UmMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends emails in background worker threads.
+ * Emails are taken from the bounded queue in batches and each batch is sent using one connection
+ * to the mail server. Failed emails are retried with exponential backoff.
+ * If the outbox is specified, emails are persisted before sending, except sensitive emails (e.g. containing
+ * passwords), which are never persisted. Pending emails and emails with expired claim (e.g. of the stopped node)
+ * are periodically claimed from the outbox and queued again.
+ * Sending errors are only logged, the caller is notified only if the email is neither queued nor persisted.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class AsyncEmailDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(AsyncEmailDispatcher.class);
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+    private static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    //claim of the outbox email is prolonged on each attempt, so it must be longer than the retry delay
+    private static final long OUTBOX_CLAIM_TIMEOUT_MILLIS = MAX_RETRY_DELAY_MILLIS * 3;
+    private static final long OUTBOX_POLL_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final JavaMailSender mailSender;
+    private final JdbcEmailOutbox outbox;
+    private final BlockingQueue<OutgoingEmail> queue;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final UmMetrics umMetrics;
+
+    private final ExecutorService workers;
+    private final ScheduledExecutorService retryScheduler;
+    private volatile boolean running = true;
+
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder retryCount = new LongAdder();
+
+    public AsyncEmailDispatcher(JavaMailSender mailSender, JdbcEmailOutbox outbox, int queueCapacity,
+                                int workersCount, int batchSize, int maxAttempts, long retryDelayMillis) {
+        this(mailSender, outbox, queueCapacity, workersCount, batchSize, maxAttempts, retryDelayMillis,
+                OUTBOX_POLL_INTERVAL_MILLIS, NoOpUmMetrics.INSTANCE);
+    }
+
+    public AsyncEmailDispatcher(JavaMailSender mailSender, JdbcEmailOutbox outbox, int queueCapacity,
+                                int workersCount, int batchSize, int maxAttempts, long retryDelayMillis,
+                                long outboxPollIntervalMillis, UmMetrics umMetrics) {
+        this.mailSender = mailSender;
+        this.outbox = outbox;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelayMillis = retryDelayMillis;
+        this.umMetrics = umMetrics;
+        umMetrics.gauge("um.email.queueSize", queue::size);
+        int threads = Math.max(1, workersCount);
+        this.workers = Executors.newFixedThreadPool(threads, namedDaemonThreadFactory("um-email-worker"));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(namedDaemonThreadFactory("um-email-retry"));
+        for (int i = 0; i < threads; i++) {
+            workers.execute(this::processQueue);
+        }
+        if (outbox != null && outboxPollIntervalMillis > 0) {
+            retryScheduler.scheduleWithFixedDelay(this::resumePendingSafely, outboxPollIntervalMillis,
+                    outboxPollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Queues message for sending.
+     * @throws MailSendException if the queue is full and the message is not persisted in the outbox
+     */
+    public void submit(SimpleMailMessage message) {
+        submit(message, false);
+    }
+
+    /**
+     * Queues message for sending, sensitive message is not persisted in the outbox.
+     * @throws MailSendException if the queue is full and the message is not persisted in the outbox
+     */
+    public void submit(SimpleMailMessage message, boolean sensitive) {
+        Long outboxId = outbox != null && !sensitive ? outbox.save(message) : null;
+        if (!queue.offer(new OutgoingEmail(outboxId, message, 0))) {
+            if (outboxId == null) {
+                throw new MailSendException("Email queue is full, message to " +
+                        String.join(",", recipients(message)) + " is not queued");
+            }
+            outbox.release(outboxId);
+            log.warn("Email queue is full, message to {} is left in outbox",
+                    String.join(",", recipients(message)));
+        }
+    }
+
+    /**
+     * Claims and queues pending emails and emails with expired claim from the outbox,
+     * e.g. left after shutdown, not queued because of the full queue or claimed by the stopped node.
+     * @return count of queued emails
+     */
+    public int resumePending() {
+        if (outbox == null) return 0;
+        int queued = 0;
+        for (JdbcEmailOutbox.OutboxEmail email :
+                outbox.claimPending(queue.remainingCapacity(), OUTBOX_CLAIM_TIMEOUT_MILLIS)) {
+            if (queue.offer(new OutgoingEmail(email.getId(), email.getMessage(), email.getAttempts()))) {
+                queued++;
+            } else {
+                outbox.release(email.getId());
+            }
+        }
+        if (queued > 0) log.info("Queued {} pending emails from outbox", queued);
+        return queued;
+    }
+
+    private void resumePendingSafely() {
+        try {
+            resumePending();
+        } catch (Exception e) {
+            log.error("Loading pending emails from outbox error: ", e);
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+        retryScheduler.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(5, TimeUnit.SECONDS)) workers.shutdownNow();
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        List<OutgoingEmail> unsent = new ArrayList<>();
+        queue.drainTo(unsent);
+        if (!unsent.isEmpty()) {
+            int released = 0;
+            for (OutgoingEmail email : unsent) {
+                if (email.outboxId == null) continue;
+                try {
+                    outbox.release(email.outboxId);
+                    released++;
+                } catch (Exception e) {
+                    log.warn("Releasing email {} in outbox error: {}", email.outboxId, e.getMessage());
+                }
+            }
+            log.warn("Email dispatcher stopped, {} emails are not sent, {} of them are left in outbox",
+                    unsent.size(), released);
+        }
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getSentCount() {
+        return sentCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    public long getRetryCount() {
+        return retryCount.sum();
+    }
+
+    private void processQueue() {
+        List<OutgoingEmail> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                OutgoingEmail first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Processing email queue error: ", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch(List<OutgoingEmail> batch) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            messages[i] = batch.get(i).message;
+        }
+
+        Map<Object, Exception> failedMessages = null;
+        MailException sendException = null;
+        long startTime = umMetrics.startTimer();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            sendException = e;
+            failedMessages = e.getFailedMessages();
+        } catch (MailException e) {
+            sendException = e;
+        } finally {
+            umMetrics.stopTimer("um.email.send", startTime);
+        }
+
+        for (OutgoingEmail email : batch) {
+            boolean failed = sendException != null &&
+                    (failedMessages == null || failedMessages.isEmpty() || failedMessages.containsKey(email.message));
+            if (failed) {
+                umMetrics.increment("um.email.failures");
+                scheduleRetry(email, sendException);
+            } else {
+                sentCount.increment();
+                if (email.outboxId != null) outbox.delete(email.outboxId);
+            }
+        }
+    }
+
+    private void scheduleRetry(OutgoingEmail email, MailException exception) {
+        int attempts = email.attempts + 1;
+        if (attempts >= maxAttempts) {
+            failedCount.increment();
+            log.error("Failed to send an email to " + String.join(",", recipients(email.message)) +
+                    " after " + attempts + " attempts!", exception);
+            if (email.outboxId != null) outbox.markFailed(email.outboxId, attempts);
+            return;
+        }
+
+        retryCount.increment();
+        if (email.outboxId != null) outbox.updateAttempts(email.outboxId, attempts);
+        long delay = Math.min(retryDelayMillis << Math.min(attempts - 1, 20), MAX_RETRY_DELAY_MILLIS);
+        log.warn("Failed to send an email to {}, attempt {}, next attempt in {} ms: {}",
+                String.join(",", recipients(email.message)), attempts, delay, exception.getMessage());
+        OutgoingEmail retry = new OutgoingEmail(email.outboxId, email.message, attempts);
+        try {
+            retryScheduler.schedule(() -> {
+                if (queue.offer(retry)) return;
+                if (retry.outboxId != null) {
+                    outbox.release(retry.outboxId);
+                    log.warn("Email queue is full, retry of email to {} is left in outbox",
+                            String.join(",", recipients(retry.message)));
+                } else {
+                    failedCount.increment();
+                    log.error("Email queue is full, retry of email to {} is dropped",
+                            String.join(",", recipients(retry.message)));
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.warn("Email retry is not scheduled: {}", e.getMessage());
+        }
+    }
+
+    private static String[] recipients(SimpleMailMessage message) {
+        return message.getTo() != null ? message.getTo() : new String[0];
+    }
+
+    private static ThreadFactory namedDaemonThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class OutgoingEmail {
+        private final Long outboxId;
+        private final SimpleMailMessage message;
+        private final int attempts;
+
+        private OutgoingEmail(Long outboxId, SimpleMailMessage message, int attempts) {
+            this.outboxId = outboxId;
+            this.message = message;
+            this.attempts = attempts;
+        }
+    }
+}
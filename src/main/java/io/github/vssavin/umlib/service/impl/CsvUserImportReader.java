@@ -0,0 +1,111 @@
+package io.github.vssavin.umlib.service.impl;
+
+import io.github.vssavin.umlib.dto.UserImportRecord;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads users from the csv source with header line, e.g. "login,name,password,email,role".
+ * Values may be enclosed in double quotes, quotes inside such values are doubled.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+class CsvUserImportReader implements UserImportReader {
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+
+    private final BufferedReader reader;
+    private Map<String, Integer> columns;
+
+    CsvUserImportReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    @Override
+    public UserImportRecord read() throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+        List<String> values;
+        do {
+            values = readRow();
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).trim().isEmpty());
+
+        return new UserImportRecord(getValue(values, "login"), getValue(values, "name"),
+                getValue(values, "password"), getValue(values, "email"), getValue(values, "role"));
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRow();
+        if (header == null) {
+            throw new IOException("Csv header not found!");
+        }
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).replace("\uFEFF", "").trim().toLowerCase();
+            columns.put(column, i);
+        }
+        if (!columns.containsKey("login") || !columns.containsKey("email")) {
+            throw new IOException("Csv header should contain login and email columns!");
+        }
+    }
+
+    private String getValue(List<String> values, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        return values.get(index).trim();
+    }
+
+    private List<String> readRow() throws IOException {
+        int ch = reader.read();
+        if (ch == -1) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        while (ch != -1) {
+            char c = (char) ch;
+            if (quoted) {
+                if (c == QUOTE) {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == QUOTE) {
+                        value.append(QUOTE);
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    value.append(c);
+                }
+            } else if (c == QUOTE) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                value.append(c);
+            }
+            ch = reader.read();
+        }
+        if (quoted) {
+            throw new IOException("Unclosed quote in csv value: " + value);
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
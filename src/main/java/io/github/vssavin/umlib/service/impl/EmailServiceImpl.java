@@ -1,32 +1,101 @@
 package io.github.vssavin.umlib.service.impl;
 
 import io.github.vssavin.umlib.config.EmailConfig;
+import io.github.vssavin.umlib.config.UmConfig;
+import io.github.vssavin.umlib.metrics.NoOpUmMetrics;
+import io.github.vssavin.umlib.metrics.UmMetrics;
 import io.github.vssavin.umlib.service.EmailService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.mail.MailException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author vssavin on 13.01.22
  */
 @Service
 public class EmailServiceImpl implements EmailService {
+    private static final Logger log = LoggerFactory.getLogger(EmailServiceImpl.class);
 
     private final JavaMailSender emailSender;
     private final EmailConfig emailConfig;
+    private final AsyncEmailDispatcher dispatcher;
+    private final UmMetrics umMetrics;
+
+    @Autowired
+    public EmailServiceImpl(JavaMailSender emailSender, EmailConfig emailConfig, UmConfig umConfig,
+                            @Qualifier("umDataSource") DataSource umDataSource, UmMetrics umMetrics) {
+        this.emailSender = emailSender;
+        this.emailConfig = emailConfig;
+        this.umMetrics = umMetrics;
+        if (umConfig.isEmailAsync()) {
+            JdbcEmailOutbox outbox = umConfig.isEmailOutboxEnabled() ? new JdbcEmailOutbox(umDataSource) : null;
+            this.dispatcher = new AsyncEmailDispatcher(emailSender, outbox, umConfig.getEmailQueueCapacity(),
+                    umConfig.getEmailWorkers(), umConfig.getEmailBatchSize(), umConfig.getEmailMaxAttempts(),
+                    umConfig.getEmailRetryDelayMillis(),
+                    TimeUnit.SECONDS.toMillis(umConfig.getEmailOutboxPollSeconds()), umMetrics);
+            try {
+                dispatcher.resumePending();
+            } catch (Exception e) {
+                log.error("Loading pending emails from outbox error: ", e);
+            }
+        } else {
+            this.dispatcher = null;
+        }
+    }
 
     public EmailServiceImpl(JavaMailSender emailSender, EmailConfig emailConfig) {
         this.emailSender = emailSender;
         this.emailConfig = emailConfig;
+        this.dispatcher = null;
+        this.umMetrics = NoOpUmMetrics.INSTANCE;
     }
 
     @Override
     public void sendSimpleMessage(String destinationEmail, String subject, String text) {
+        sendMessage(destinationEmail, subject, text, false);
+    }
+
+    @Override
+    public void sendSensitiveMessage(String destinationEmail, String subject, String text) {
+        sendMessage(destinationEmail, subject, text, true);
+    }
+
+    public AsyncEmailDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dispatcher != null) dispatcher.shutdown();
+    }
+
+    private void sendMessage(String destinationEmail, String subject, String text, boolean sensitive) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setFrom(emailConfig.getUserName());
         message.setTo(destinationEmail);
         message.setSubject(subject);
         message.setText(text);
-        emailSender.send(message);
+        if (dispatcher != null) {
+            dispatcher.submit(message, sensitive);
+        } else {
+            long startTime = umMetrics.startTimer();
+            try {
+                emailSender.send(message);
+            } catch (MailException e) {
+                umMetrics.increment("um.email.failures");
+                throw e;
+            } finally {
+                umMetrics.stopTimer("um.email.send", startTime);
+            }
+        }
     }
 }
@@ -0,0 +1,113 @@
+package io.github.vssavin.umlib.service.impl;
+
+import io.github.vssavin.umlib.entity.User;
+import io.github.vssavin.umlib.service.UserCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Periodically deletes users whose registration has not been confirmed before the expiration date.
+ * Users are deleted in batches, each batch is deleted by a separate short statement,
+ * so the users table is not locked for a long time.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class ExpiredUsersPurger implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ExpiredUsersPurger.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserCache userCache;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler;
+
+    private final LongAdder purgedCount = new LongAdder();
+    private volatile int lastPurgedCount;
+
+    public ExpiredUsersPurger(DataSource dataSource, UserCache userCache, long intervalSeconds, int batchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.userCache = userCache;
+        this.batchSize = Math.max(1, batchSize);
+        if (intervalSeconds > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "um-expired-users-purger");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleWithFixedDelay(this::purgeSafely, intervalSeconds, intervalSeconds,
+                    TimeUnit.SECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Deletes users expired before the current time.
+     * @return count of deleted users
+     */
+    public int purge() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        int purged = 0;
+        long lastId = 0;
+        List<User> batch;
+        do {
+            batch = jdbcTemplate.query(
+                    "select id, login, email from users where expiration_date < ? and id > ? order by id limit ?",
+                    (rs, rowNum) -> User.builder().id(rs.getLong("id")).login(rs.getString("login"))
+                            .email(rs.getString("email")).build(),
+                    now, lastId, batchSize);
+            if (batch.isEmpty()) break;
+            lastId = batch.get(batch.size() - 1).getId();
+            purged += deleteBatch(batch, now);
+        } while (batch.size() == batchSize && !Thread.currentThread().isInterrupted());
+
+        lastPurgedCount = purged;
+        purgedCount.add(purged);
+        if (purged > 0) log.info("Purged {} expired unconfirmed users", purged);
+        return purged;
+    }
+
+    public long getPurgedCount() {
+        return purgedCount.sum();
+    }
+
+    public int getLastPurgedCount() {
+        return lastPurgedCount;
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    private int deleteBatch(List<User> batch, Timestamp expiredBefore) {
+        List<Object> args = new ArrayList<>(batch.size() + 1);
+        args.add(expiredBefore);
+        for (User user : batch) {
+            args.add(user.getId());
+        }
+        //expiration date is checked again, the user may have been confirmed after the select
+        int deleted = jdbcTemplate.update("delete from users where expiration_date < ? and id in (" +
+                String.join(",", Collections.nCopies(batch.size(), "?")) + ")", args.toArray());
+        batch.forEach(userCache::invalidate);
+        return deleted;
+    }
+
+    private void purgeSafely() {
+        try {
+            purge();
+        } catch (Exception e) {
+            log.error("Purging expired users error: ", e);
+        }
+    }
+}
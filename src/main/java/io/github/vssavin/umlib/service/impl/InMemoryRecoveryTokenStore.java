@@ -0,0 +1,79 @@
+package io.github.vssavin.umlib.service.impl;
+
+import io.github.vssavin.umlib.dto.RecoveryToken;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Recovery token store which keeps tokens in memory of the current node.
+ * Number of tokens is limited: if the limit is exceeded the oldest token is removed.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class InMemoryRecoveryTokenStore extends AbstractRecoveryTokenStore {
+
+    private final int maxSize;
+    private final Map<String, RecoveryToken> tokens;
+    private final Map<Long, String> userTokens = new HashMap<>();
+
+    public InMemoryRecoveryTokenStore(int maxSize, long ttlMillis, long sweepIntervalSeconds) {
+        super(ttlMillis, sweepIntervalSeconds);
+        this.maxSize = maxSize;
+        //tokens are ordered by creation time, so the eldest token is also the first to expire
+        this.tokens = new LinkedHashMap<String, RecoveryToken>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RecoveryToken> eldest) {
+                if (size() > InMemoryRecoveryTokenStore.this.maxSize) {
+                    userTokens.remove(eldest.getValue().getUserId(), eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public synchronized RecoveryToken create(Long userId) {
+        String previousToken = userTokens.remove(userId);
+        if (previousToken != null) tokens.remove(previousToken);
+        RecoveryToken token = new RecoveryToken(generateToken(), userId, System.currentTimeMillis() + ttlMillis);
+        userTokens.put(userId, token.getToken());
+        tokens.put(token.getToken(), token);
+        return token;
+    }
+
+    @Override
+    public synchronized RecoveryToken get(String token) {
+        if (token == null) return null;
+        return tokens.get(token);
+    }
+
+    @Override
+    public synchronized void remove(String token) {
+        if (token == null) return;
+        RecoveryToken recoveryToken = tokens.remove(token);
+        if (recoveryToken != null) userTokens.remove(recoveryToken.getUserId(), token);
+    }
+
+    @Override
+    public synchronized int removeExpired() {
+        int removed = 0;
+        Iterator<RecoveryToken> iterator = tokens.values().iterator();
+        while (iterator.hasNext()) {
+            RecoveryToken token = iterator.next();
+            if (!token.isExpired()) break;
+            iterator.remove();
+            userTokens.remove(token.getUserId(), token.getToken());
+            removed++;
+        }
+        return removed;
+    }
+
+    @Override
+    public synchronized int size() {
+        return tokens.size();
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.vssavin.umlib.service.impl;
+
+import io.github.vssavin.umlib.config.UmConfig;
+import io.github.vssavin.umlib.entity.User;
+import io.github.vssavin.umlib.service.UserCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded (LRU) user cache with time-based expiration of entries.
+ * Cache stores copies of users, so modifying of returned objects doesn't affect cached values.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+@Component
+public class InMemoryUserCache implements UserCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final Map<Long, CacheEntry> entries;
+    private final Map<String, Long> loginIndex = new HashMap<>();
+    private final Map<String, Long> emailIndex = new HashMap<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    @Autowired
+    public InMemoryUserCache(UmConfig umConfig) {
+        this(umConfig.getUserCacheMaxSize(), umConfig.getUserCacheTtlSeconds() * 1000);
+    }
+
+    public InMemoryUserCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<Long, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CacheEntry> eldest) {
+                if (size() > InMemoryUserCache.this.maxSize) {
+                    removeIndexes(eldest.getValue().user);
+                    evictionCount.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public synchronized User getById(Long id) {
+        if (id == null) return null;
+        return getActual(id);
+    }
+
+    @Override
+    public synchronized User getByLogin(String login) {
+        if (login == null) return null;
+        return getActual(loginIndex.get(login));
+    }
+
+    @Override
+    public synchronized User getByEmail(String email) {
+        if (email == null) return null;
+        return getActual(emailIndex.get(email));
+    }
+
+    @Override
+    public synchronized void put(User user) {
+        if (maxSize <= 0 || user == null || user.getId() == null) return;
+        CacheEntry previous = entries.remove(user.getId());
+        if (previous != null) removeIndexes(previous.user);
+        User copy = copyOf(user);
+        if (copy.getLogin() != null) loginIndex.put(copy.getLogin(), copy.getId());
+        if (copy.getEmail() != null) emailIndex.put(copy.getEmail(), copy.getId());
+        entries.put(copy.getId(), new CacheEntry(copy, System.currentTimeMillis() + ttlMillis));
+    }
+
+    @Override
+    public synchronized void invalidate(User user) {
+        if (user == null) return;
+        removeById(user.getId());
+        if (user.getLogin() != null) removeById(loginIndex.get(user.getLogin()));
+        if (user.getEmail() != null) removeById(emailIndex.get(user.getEmail()));
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        entries.clear();
+        loginIndex.clear();
+        emailIndex.clear();
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private User getActual(Long id) {
+        CacheEntry entry = id != null ? entries.get(id) : null;
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+
+        if (entry.expirationTime < System.currentTimeMillis()) {
+            removeById(id);
+            evictionCount.increment();
+            missCount.increment();
+            return null;
+        }
+
+        hitCount.increment();
+        return copyOf(entry.user);
+    }
+
+    private void removeById(Long id) {
+        if (id == null) return;
+        CacheEntry entry = entries.remove(id);
+        if (entry != null) removeIndexes(entry.user);
+    }
+
+    private void removeIndexes(User user) {
+        if (user.getLogin() != null) loginIndex.remove(user.getLogin(), user.getId());
+        if (user.getEmail() != null) emailIndex.remove(user.getEmail(), user.getId());
+    }
+
+    private static User copyOf(User user) {
+        return User.builder().id(user.getId()).login(user.getLogin()).name(user.getName())
+                .password(user.getPassword()).email(user.getEmail()).authority(user.getAuthority())
+                .expirationDate(user.getExpirationDate()).verificationId(user.getVerificationId())
+                .credentialsVersion(user.getCredentialsVersion())
+                .build();
+    }
+
+    private static class CacheEntry {
+        private final User user;
+        private final long expirationTime;
+
+        private CacheEntry(User user, long expirationTime) {
+            this.user = user;
+            this.expirationTime = expirationTime;
+        }
+    }
+}
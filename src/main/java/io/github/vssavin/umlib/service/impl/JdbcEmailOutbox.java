@@ -0,0 +1,141 @@
+package io.github.vssavin.umlib.service.impl;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.mail.SimpleMailMessage;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Persistent outbox of emails: keeps queued emails in the email_outbox table until they are sent,
+ * so emails are not lost on application restart.
+ * Email is sent only by the node which has claimed it (status SENDING), claim of the stopped node
+ * expires after the claim timeout. Text of the failed emails is removed.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class JdbcEmailOutbox {
+    static final String STATUS_PENDING = "PENDING";
+    static final String STATUS_SENDING = "SENDING";
+    static final String STATUS_FAILED = "FAILED";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcEmailOutbox(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public Long save(SimpleMailMessage message) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "insert into email_outbox(sender, recipient, subject, text, status, attempts, created_at, " +
+                            "claimed_at) values (?, ?, ?, ?, ?, 0, ?, ?)", new String[]{"id"});
+            statement.setString(1, message.getFrom());
+            statement.setString(2, String.join(",", message.getTo() != null ? message.getTo() : new String[0]));
+            statement.setString(3, message.getSubject());
+            statement.setString(4, message.getText());
+            //saved email is claimed by this node
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            statement.setString(5, STATUS_SENDING);
+            statement.setTimestamp(6, now);
+            statement.setTimestamp(7, now);
+            return statement;
+        }, keyHolder);
+        Number key = keyHolder.getKey();
+        return key != null ? key.longValue() : null;
+    }
+
+    public void delete(Long id) {
+        jdbcTemplate.update("delete from email_outbox where id = ?", id);
+    }
+
+    /**
+     * Marks email as failed, text of the email is removed, because it may contain sensitive data.
+     */
+    public void markFailed(Long id, int attempts) {
+        jdbcTemplate.update("update email_outbox set status = ?, attempts = ?, text = null where id = ?",
+                STATUS_FAILED, attempts, id);
+    }
+
+    /**
+     * Updates attempts count and prolongs the claim of the email.
+     */
+    public void updateAttempts(Long id, int attempts) {
+        jdbcTemplate.update("update email_outbox set attempts = ?, claimed_at = ? where id = ?",
+                attempts, new Timestamp(System.currentTimeMillis()), id);
+    }
+
+    /**
+     * Claims pending emails and emails with expired claim for sending by this node.
+     * Each email is claimed by the conditional update, so the email is claimed only by one node.
+     * @return claimed emails
+     */
+    public List<OutboxEmail> claimPending(int limit, long claimTimeoutMillis) {
+        List<OutboxEmail> claimed = new ArrayList<>();
+        if (limit <= 0) return claimed;
+        long now = System.currentTimeMillis();
+        Timestamp expiredClaimTime = new Timestamp(now - claimTimeoutMillis);
+        for (OutboxEmail email : loadClaimable(limit, expiredClaimTime)) {
+            int updated = jdbcTemplate.update("update email_outbox set status = ?, claimed_at = ? " +
+                            "where id = ? and (status = ? or (status = ? and claimed_at < ?))",
+                    STATUS_SENDING, new Timestamp(now), email.getId(), STATUS_PENDING, STATUS_SENDING,
+                    expiredClaimTime);
+            if (updated == 1) claimed.add(email);
+        }
+        return claimed;
+    }
+
+    /**
+     * Returns claimed email to pending state, so it can be claimed by any node.
+     */
+    public void release(Long id) {
+        jdbcTemplate.update("update email_outbox set status = ?, claimed_at = null where id = ? and status = ?",
+                STATUS_PENDING, id, STATUS_SENDING);
+    }
+
+    private List<OutboxEmail> loadClaimable(int limit, Timestamp expiredClaimTime) {
+        return jdbcTemplate.query(
+                "select id, sender, recipient, subject, text, attempts from email_outbox " +
+                        "where status = ? or (status = ? and claimed_at < ?) order by id limit ?",
+                (rs, rowNum) -> {
+                    SimpleMailMessage message = new SimpleMailMessage();
+                    message.setFrom(rs.getString("sender"));
+                    String recipient = rs.getString("recipient");
+                    message.setTo(recipient != null ? recipient.split(",") : new String[0]);
+                    message.setSubject(rs.getString("subject"));
+                    message.setText(rs.getString("text"));
+                    return new OutboxEmail(rs.getLong("id"), message, rs.getInt("attempts"));
+                },
+                STATUS_PENDING, STATUS_SENDING, expiredClaimTime, limit);
+    }
+
+    public static class OutboxEmail {
+        private final Long id;
+        private final SimpleMailMessage message;
+        private final int attempts;
+
+        OutboxEmail(Long id, SimpleMailMessage message, int attempts) {
+            this.id = id;
+            this.message = message;
+            this.attempts = attempts;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public SimpleMailMessage getMessage() {
+            return message;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+    }
+}
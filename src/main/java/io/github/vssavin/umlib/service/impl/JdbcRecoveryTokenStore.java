@@ -0,0 +1,62 @@
+package io.github.vssavin.umlib.service.impl;
+
+import io.github.vssavin.umlib.dto.RecoveryToken;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Recovery token store which keeps tokens in the recovery_tokens table of the um database,
+ * so tokens are shared between application nodes and survive restarts.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+public class JdbcRecoveryTokenStore extends AbstractRecoveryTokenStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcRecoveryTokenStore(DataSource dataSource, long ttlMillis, long sweepIntervalSeconds) {
+        super(ttlMillis, sweepIntervalSeconds);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public RecoveryToken create(Long userId) {
+        RecoveryToken token = new RecoveryToken(generateToken(), userId, System.currentTimeMillis() + ttlMillis);
+        jdbcTemplate.update("delete from recovery_tokens where user_id = ?", userId);
+        jdbcTemplate.update("insert into recovery_tokens(token, user_id, expiration_time) values (?, ?, ?)",
+                token.getToken(), userId, new Timestamp(token.getExpirationTime()));
+        return token;
+    }
+
+    @Override
+    public RecoveryToken get(String token) {
+        if (token == null) return null;
+        List<RecoveryToken> tokens = jdbcTemplate.query(
+                "select token, user_id, expiration_time from recovery_tokens where token = ?",
+                (rs, rowNum) -> new RecoveryToken(rs.getString("token"), rs.getLong("user_id"),
+                        rs.getTimestamp("expiration_time").getTime()),
+                token);
+        return tokens.isEmpty() ? null : tokens.get(0);
+    }
+
+    @Override
+    public void remove(String token) {
+        if (token == null) return;
+        jdbcTemplate.update("delete from recovery_tokens where token = ?", token);
+    }
+
+    @Override
+    public int removeExpired() {
+        return jdbcTemplate.update("delete from recovery_tokens where expiration_time < ?",
+                new Timestamp(System.currentTimeMillis()));
+    }
+
+    @Override
+    public int size() {
+        Integer count = jdbcTemplate.queryForObject("select count(*) from recovery_tokens", Integer.class);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.vssavin.umlib.service.impl;
+
+import io.github.vssavin.umlib.dto.UserFilter;
+import io.github.vssavin.umlib.entity.User;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Set-based operations on the users table used by bulk import and export.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+class JdbcUserBulkOperations {
+    private static final int MAX_IN_PARAMETERS = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    JdbcUserBulkOperations(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    Set<String> findExistingLogins(Collection<String> logins) {
+        return findExisting("login", logins);
+    }
+
+    Set<String> findExistingEmails(Collection<String> emails) {
+        return findExisting("email", emails);
+    }
+
+    /**
+     * Inserts users using jdbc batch statements in one transaction, so no user is inserted if any insert fails.
+     * @return count of inserted users
+     */
+    int insert(List<User> users) {
+        Integer inserted = transactionTemplate.execute(status -> insertBatch(users));
+        return inserted != null ? inserted : 0;
+    }
+
+    /**
+     * Reads users ordered by id in chunks of the specified size, so the result set of the whole table
+     * is never held in memory. Password is not read.
+     */
+    void forEachUser(UserFilter userFilter, int chunkSize, RowCallbackHandler handler) {
+        StringBuilder where = new StringBuilder(" where id > ?");
+        List<Object> filterParams = new ArrayList<>();
+        if (userFilter != null && !userFilter.isEmpty()) {
+            if (userFilter.getUserId() != null) {
+                where.append(" and id = ?");
+                filterParams.add(userFilter.getUserId());
+            }
+            appendLike(where, filterParams, "login", userFilter.getLogin());
+            appendLike(where, filterParams, "name", userFilter.getName());
+            appendLike(where, filterParams, "email", userFilter.getEmail());
+        }
+        String query = "select id, login, name, email, authority, expiration_date, verification_id from users" +
+                where + " order by id limit " + chunkSize;
+
+        long lastId = 0;
+        while (true) {
+            List<Object> params = new ArrayList<>();
+            params.add(lastId);
+            params.addAll(filterParams);
+            long[] chunkLastId = {-1};
+            jdbcTemplate.query(query, rs -> {
+                handler.processRow(rs);
+                chunkLastId[0] = rs.getLong("id");
+            }, params.toArray());
+            if (chunkLastId[0] < 0) {
+                return;
+            }
+            lastId = chunkLastId[0];
+        }
+    }
+
+    /**
+     * @return true if all the specified unique indexes of the users table exist
+     */
+    boolean hasUniqueIndexes(String... indexNames) {
+        Set<String> indexes = jdbcTemplate.execute((ConnectionCallback<Set<String>>) connection -> {
+            Set<String> names = new HashSet<>();
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String table : new String[]{"users", "USERS"}) {
+                try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), null, table, true, true)) {
+                    while (rs.next()) {
+                        String name = rs.getString("INDEX_NAME");
+                        if (name != null) names.add(name.toLowerCase());
+                    }
+                }
+            }
+            return names;
+        });
+        return indexes != null && indexes.containsAll(Arrays.asList(indexNames));
+    }
+
+    private int insertBatch(List<User> users) {
+        int[][] counts = jdbcTemplate.batchUpdate("insert into users" +
+                        "(login, name, password, email, authority, expiration_date, verification_id) " +
+                        "values (?, ?, ?, ?, ?, ?, ?)",
+                users, users.size(), (statement, user) -> {
+                    statement.setString(1, user.getLogin());
+                    statement.setString(2, user.getName());
+                    statement.setString(3, user.getPassword());
+                    statement.setString(4, user.getEmail());
+                    statement.setString(5, user.getAuthority());
+                    statement.setTimestamp(6, new Timestamp(user.getExpirationDate().getTime()));
+                    statement.setString(7, user.getVerificationId());
+                });
+        return users.size() - countFailed(counts);
+    }
+
+    private Set<String> findExisting(String column, Collection<String> values) {
+        Set<String> existing = new HashSet<>();
+        List<String> valuesList = new ArrayList<>(values);
+        for (int from = 0; from < valuesList.size(); from += MAX_IN_PARAMETERS) {
+            List<String> part = valuesList.subList(from, Math.min(from + MAX_IN_PARAMETERS, valuesList.size()));
+            String placeholders = String.join(",", Collections.nCopies(part.size(), "?"));
+            existing.addAll(jdbcTemplate.queryForList(
+                    "select " + column + " from users where " + column + " in (" + placeholders + ")",
+                    String.class, part.toArray()));
+        }
+        return existing;
+    }
+
+    private static void appendLike(StringBuilder where, List<Object> params, String column, String value) {
+        if (value != null && !value.isEmpty()) {
+            where.append(" and ").append(column).append(" like ?");
+            params.add(value);
+        }
+    }
+
+    private static int countFailed(int[][] counts) {
+        int failed = 0;
+        for (int[] batchCounts : counts) {
+            for (int count : batchCounts) {
+                if (count == 0) failed++;
+            }
+        }
+        return failed;
+    }
+}
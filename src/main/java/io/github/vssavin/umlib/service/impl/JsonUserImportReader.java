@@ -0,0 +1,46 @@
+package io.github.vssavin.umlib.service.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.vssavin.umlib.dto.UserImportRecord;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads users from the json array of objects with login, name, password, email and role fields.
+ * The array is parsed incrementally, so only the current object is kept in memory.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+class JsonUserImportReader implements UserImportReader {
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final JsonParser parser;
+    private boolean started;
+
+    JsonUserImportReader(Reader reader) throws IOException {
+        this.parser = objectMapper.getFactory().createParser(reader);
+    }
+
+    @Override
+    public UserImportRecord read() throws IOException {
+        if (!started) {
+            started = true;
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Json array of users expected!");
+            }
+        }
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("Json object of user expected, but found: " + token);
+        }
+        return objectMapper.readValue(parser, UserImportRecord.class);
+    }
+}
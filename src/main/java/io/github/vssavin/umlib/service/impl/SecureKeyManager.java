@@ -0,0 +1,323 @@
+package io.github.vssavin.umlib.service.impl;
+
+import io.github.vssavin.umlib.config.UmConfig;
+import io.github.vssavin.umlib.service.SecureService;
+import io.github.vssavin.umlib.utils.UmUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps secure keys of the clients in the bounded cache, so the key of the client is not requested
+ * from the secure service on each form post. Key of the address is requested again after it has not been used
+ * for the cache lifetime or, if rotation is enabled, after the rotation period.
+ * If the pool size is positive, keys are generated in the background up to the pool size and new or rotated
+ * clients receive keys from the pool, so the key is not generated on the request thread.
+ * Issued keys are remembered by key id, the client sends the id of the key with the form, so the value is decrypted
+ * with the key it was encrypted with. Replaced key is accepted during the grace period.
+ * Values decrypted during the request are kept in the request attributes and decrypted only once.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+@Component
+public class SecureKeyManager implements AutoCloseable {
+    public static final String KEY_ID_PARAMETER = "secureKeyId";
+    public static final String KEY_ID_HEADER = "X-Secure-Key-Id";
+
+    private static final Logger log = LoggerFactory.getLogger(SecureKeyManager.class);
+    private static final String DECRYPTED_VALUES_ATTRIBUTE = SecureKeyManager.class.getName() + ".DECRYPTED_VALUES";
+    private static final String POOL_KEY_ID_PREFIX = "um-key-pool-";
+    private static final int KEY_ID_LENGTH = 22;
+
+    private final SecureService secureService;
+    private final int maxSize;
+    private final long idleMillis;
+    private final long rotationMillis;
+    private final long graceMillis;
+    private final Map<String, KeyEntry> keys;
+    private final Map<String, IssuedKey> issuedKeys;
+
+    private final BlockingQueue<String> pool;
+    private final ExecutorService poolRefiller;
+    private final AtomicBoolean refillScheduled = new AtomicBoolean();
+    private final AtomicLong poolKeyCounter = new AtomicLong();
+    private final long poolKeyIdCount;
+
+    @Autowired
+    public SecureKeyManager(UmUtil umUtil, UmConfig umConfig) {
+        this(umUtil.getAuthService(), umConfig.getSecureKeyCacheMaxSize(),
+                TimeUnit.SECONDS.toMillis(umConfig.getSecureKeyCacheTtlSeconds()),
+                TimeUnit.SECONDS.toMillis(umConfig.getSecureKeyRotationSeconds()),
+                TimeUnit.SECONDS.toMillis(umConfig.getSecureKeyGraceSeconds()), umConfig.getSecureKeyPoolSize());
+    }
+
+    public SecureKeyManager(SecureService secureService, int maxSize, long idleMillis) {
+        this(secureService, maxSize, idleMillis, 0, Long.MAX_VALUE, 0);
+    }
+
+    public SecureKeyManager(SecureService secureService, int maxSize, long idleMillis, long rotationMillis,
+                            long graceMillis, int poolSize) {
+        this.secureService = secureService;
+        this.maxSize = maxSize;
+        this.idleMillis = idleMillis;
+        this.rotationMillis = rotationMillis;
+        this.graceMillis = graceMillis;
+        this.keys = createLruMap(maxSize);
+        this.issuedKeys = createLruMap(maxSize);
+        if (poolSize > 0 && isCacheEnabled()) {
+            this.pool = new ArrayBlockingQueue<>(poolSize);
+            //pooled key ids are reused only after the key has left the pool and both caches
+            this.poolKeyIdCount = poolSize + 2L * maxSize;
+            this.poolRefiller = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "um-secure-key-pool");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduleRefill();
+        } else {
+            this.pool = null;
+            this.poolKeyIdCount = 0;
+            this.poolRefiller = null;
+        }
+    }
+
+    /**
+     * @return secure key of the client with the specified address, the key is cached if caching is enabled
+     */
+    public String getSecureKey(String address) {
+        if (!isCacheEnabled()) {
+            return secureService.getSecureKey(address);
+        }
+        long now = System.currentTimeMillis();
+        KeyEntry replaced;
+        synchronized (keys) {
+            replaced = keys.get(address);
+            if (replaced != null && isValid(replaced, now)) {
+                replaced.lastAccessTime = now;
+                return replaced.key;
+            }
+        }
+        String key = takeKey(address);
+        String keyId = getKeyId(key);
+        synchronized (keys) {
+            KeyEntry actual = keys.get(address);
+            if (actual != null && actual != replaced && isValid(actual, now)) {
+                //key is already replaced by the concurrent request, the taken key is not issued
+                actual.lastAccessTime = now;
+                key = actual.key;
+                keyId = actual.keyId;
+            } else {
+                keys.put(address, new KeyEntry(key, keyId, now));
+            }
+        }
+        synchronized (issuedKeys) {
+            issuedKeys.putIfAbsent(keyId, new IssuedKey(key, address));
+            if (replaced != null) {
+                IssuedKey replacedKey = issuedKeys.get(replaced.keyId);
+                if (replacedKey != null && replacedKey.replacedTime == 0) replacedKey.replacedTime = now;
+            }
+        }
+        return key;
+    }
+
+    public String decrypt(String encrypted, String address) {
+        return decrypt(encrypted, address, null);
+    }
+
+    /**
+     * Decrypts the value using the key with the specified id issued to the address.
+     * If the key id is not specified, unknown or its grace period is over, the current key of the address is used.
+     */
+    public String decrypt(String encrypted, String address, String keyId) {
+        String key = findIssuedKey(keyId, address);
+        return secureService.decrypt(encrypted, key != null ? key : getSecureKey(address));
+    }
+
+    /**
+     * Decrypts the value sent by the client of the request, the same value is decrypted only once per request.
+     */
+    public String decrypt(HttpServletRequest request, String encrypted) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> decryptedValues = (Map<String, String>) request.getAttribute(DECRYPTED_VALUES_ATTRIBUTE);
+        if (decryptedValues == null) {
+            decryptedValues = new HashMap<>();
+            request.setAttribute(DECRYPTED_VALUES_ATTRIBUTE, decryptedValues);
+        }
+        String decrypted = decryptedValues.get(encrypted);
+        if (decrypted == null) {
+            decrypted = decrypt(encrypted, request.getRemoteAddr(), request.getParameter(KEY_ID_PARAMETER));
+            decryptedValues.put(encrypted, decrypted);
+        }
+        return decrypted;
+    }
+
+    public void invalidate(String address) {
+        synchronized (keys) {
+            keys.remove(address);
+        }
+    }
+
+    public int size() {
+        synchronized (keys) {
+            return keys.size();
+        }
+    }
+
+    /**
+     * @return count of pre-generated keys, which are ready to be issued
+     */
+    public int getPoolSize() {
+        return pool != null ? pool.size() : 0;
+    }
+
+    /**
+     * Generates keys up to the pool size.
+     */
+    public void refillPool() {
+        if (pool == null) return;
+        while (pool.remainingCapacity() > 0 && !Thread.currentThread().isInterrupted()) {
+            long keyNumber = poolKeyCounter.getAndIncrement() % poolKeyIdCount;
+            if (!pool.offer(secureService.getSecureKey(POOL_KEY_ID_PREFIX + keyNumber))) break;
+        }
+    }
+
+    public SecureService getSecureService() {
+        return secureService;
+    }
+
+    @Override
+    public void close() {
+        if (poolRefiller != null) poolRefiller.shutdownNow();
+    }
+
+    /**
+     * @return id of the key, which is sent to the client together with the key
+     */
+    public static String getKeyId(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, KEY_ID_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * @return key id sent with the current request or null if there is no current request
+     */
+    public static String getRequestKeyId() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            return ((ServletRequestAttributes) attributes).getRequest().getParameter(KEY_ID_PARAMETER);
+        }
+        return null;
+    }
+
+    private boolean isCacheEnabled() {
+        return idleMillis > 0 && maxSize > 0;
+    }
+
+    private boolean isValid(KeyEntry entry, long now) {
+        return entry.lastAccessTime > now - idleMillis &&
+                (rotationMillis <= 0 || entry.creationTime > now - rotationMillis);
+    }
+
+    private String takeKey(String address) {
+        if (pool == null) {
+            return secureService.getSecureKey(address);
+        }
+        String key = pool.poll();
+        scheduleRefill();
+        if (key != null) {
+            return key;
+        }
+        log.debug("Secure key pool is empty, generating key for {}", address);
+        return secureService.getSecureKey(address);
+    }
+
+    private void scheduleRefill() {
+        if (refillScheduled.compareAndSet(false, true)) {
+            try {
+                poolRefiller.execute(() -> {
+                    refillScheduled.set(false);
+                    try {
+                        refillPool();
+                    } catch (Exception e) {
+                        log.error("Refilling secure key pool error: ", e);
+                    }
+                });
+            } catch (Exception e) {
+                refillScheduled.set(false);
+                log.warn("Secure key pool refill is not scheduled: {}", e.getMessage());
+            }
+        }
+    }
+
+    private String findIssuedKey(String keyId, String address) {
+        if (keyId == null || keyId.isEmpty()) return null;
+        IssuedKey issuedKey;
+        synchronized (issuedKeys) {
+            issuedKey = issuedKeys.get(keyId);
+            if (issuedKey == null || !issuedKey.address.equals(address)) return null;
+            if (issuedKey.replacedTime > 0 && System.currentTimeMillis() - issuedKey.replacedTime >= graceMillis) {
+                issuedKeys.remove(keyId);
+                return null;
+            }
+        }
+        return issuedKey.key;
+    }
+
+    private static <V> Map<String, V> createLruMap(int maxSize) {
+        return new LinkedHashMap<String, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    private static class KeyEntry {
+        private final String key;
+        private final String keyId;
+        private final long creationTime;
+        private long lastAccessTime;
+
+        private KeyEntry(String key, String keyId, long creationTime) {
+            this.key = key;
+            this.keyId = keyId;
+            this.creationTime = creationTime;
+            this.lastAccessTime = creationTime;
+        }
+    }
+
+    private static class IssuedKey {
+        private final String key;
+        private final String address;
+        private long replacedTime;
+
+        private IssuedKey(String key, String address) {
+            this.key = key;
+            this.address = address;
+        }
+    }
+}
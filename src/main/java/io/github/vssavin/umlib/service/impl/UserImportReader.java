@@ -0,0 +1,18 @@
+package io.github.vssavin.umlib.service.impl;
+
+import io.github.vssavin.umlib.dto.UserImportRecord;
+
+import java.io.IOException;
+
+/**
+ * Reads users from the import source one by one.
+ *
+ * Created by vssavin on 18.10.2026.
+ */
+interface UserImportReader {
+    /**
+     * @return next record or null if there are no more records
+     * @throws IOException if the source cannot be read or has wrong format
+     */
+    UserImportRecord read() throws IOException;
+}
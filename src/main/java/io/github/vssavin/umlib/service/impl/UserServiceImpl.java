@@ -1,20 +1,51 @@
 package io.github.vssavin.umlib.service.impl;
 
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQuery;
+import io.github.vssavin.umlib.config.BeansConfig;
 import io.github.vssavin.umlib.config.DataSourceSwitcher;
+import io.github.vssavin.umlib.config.UmConfig;
+import io.github.vssavin.umlib.dto.RecoveryToken;
+import io.github.vssavin.umlib.dto.UserDto;
 import io.github.vssavin.umlib.dto.UserFilter;
+import io.github.vssavin.umlib.dto.UserImportFormat;
+import io.github.vssavin.umlib.dto.UserImportRecord;
+import io.github.vssavin.umlib.dto.UserImportResult;
+import io.github.vssavin.umlib.dto.UserView;
+import io.github.vssavin.umlib.entity.QUser;
 import io.github.vssavin.umlib.entity.Role;
 import io.github.vssavin.umlib.entity.User;
+import io.github.vssavin.umlib.exception.EmailExistsException;
 import io.github.vssavin.umlib.exception.EmailNotFoundException;
 import io.github.vssavin.umlib.exception.RecoveryExpiredException;
 import io.github.vssavin.umlib.exception.UserConfirmFailedException;
 import io.github.vssavin.umlib.exception.UserExistsException;
+import io.github.vssavin.umlib.helper.ValidatingHelper;
+import io.github.vssavin.umlib.pagination.ApproximateCount;
+import io.github.vssavin.umlib.pagination.KeysetCursor;
+import io.github.vssavin.umlib.pagination.KeysetPaged;
+import io.github.vssavin.umlib.pagination.KeysetPaging;
 import io.github.vssavin.umlib.pagination.Paged;
 import io.github.vssavin.umlib.pagination.Paging;
 import io.github.vssavin.umlib.repository.UserRepository;
+import io.github.vssavin.umlib.security.spring.BoundedPasswordEncoder;
+import io.github.vssavin.umlib.service.RecoveryTokenStore;
+import io.github.vssavin.umlib.service.UserCache;
 import io.github.vssavin.umlib.service.UserService;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.jpa.QueryHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -23,11 +54,18 @@ import org.springframework.security.oauth2.client.authentication.OAuth2Authentic
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.security.SecureRandom;
-import java.time.LocalDateTime;
+import java.sql.SQLException;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -38,45 +76,126 @@ import static io.github.vssavin.umlib.utils.UserUtils.userFilterToPredicate;
  */
 @Service
 public class UserServiceImpl implements UserService {
+    private static final Logger log = LoggerFactory.getLogger(UserServiceImpl.class);
 
-    private static final Map<String, UserRecoveryParams> passwordRecoveryIds = new ConcurrentHashMap<>();
     private static final User EMPTY_USER = new User("", "", "", "", "");
+    private static final int IMPORT_CHUNK_SIZE = 500;
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+    private static final int MAX_LOGIN_LENGTH = 50;
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final int MAX_EMAIL_LENGTH = 50;
+    private static final String EMAIL_UNIQUE_INDEX = "ux_users_email";
+    private static final String LOGIN_UNIQUE_INDEX = "ux_users_login";
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+    private static final Expression<UserView> USER_VIEW_PROJECTION = Projections.constructor(UserView.class,
+            QUser.user.id, QUser.user.login, QUser.user.name, QUser.user.email, QUser.user.authority,
+            QUser.user.expirationDate, QUser.user.verificationId);
+    private static final Expression<UserDto> USER_DTO_PROJECTION = Projections.constructor(UserDto.class,
+            QUser.user.id, QUser.user.login, QUser.user.name, QUser.user.email);
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final EntityManagerFactory managerFactory;
     private final DataSourceSwitcher dataSourceSwitcher;
+    private final UserCache userCache;
+    private final RecoveryTokenStore recoveryTokenStore;
+    private final ApproximateCount approximateUsersCount;
+    private final JdbcUserBulkOperations bulkOperations;
+    private final boolean delegatingPasswordEncoder;
+    private volatile Boolean uniqueIndexesExist;
 
     @Autowired
     public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
-                           EntityManagerFactory managerFactory, DataSourceSwitcher dataSourceSwitcher) {
+                           EntityManagerFactory managerFactory, DataSourceSwitcher dataSourceSwitcher,
+                           UserCache userCache, RecoveryTokenStore recoveryTokenStore, UmConfig umConfig,
+                           @Qualifier("umDataSource") DataSource umDataSource) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.managerFactory = managerFactory;
         this.dataSourceSwitcher = dataSourceSwitcher;
+        this.userCache = userCache;
+        this.recoveryTokenStore = recoveryTokenStore;
+        if (umConfig.isUsersApproximateCount()) {
+            this.approximateUsersCount = new ApproximateCount(
+                    TimeUnit.SECONDS.toMillis(umConfig.getUsersApproximateCountTtlSeconds()),
+                    () -> dataSourceSwitcher.executeWithUmDataSource(userRepository::count));
+        } else {
+            this.approximateUsersCount = null;
+        }
+        this.bulkOperations = new JdbcUserBulkOperations(umDataSource);
+        this.delegatingPasswordEncoder = umConfig.isPasswordEncoderDelegating();
     }
 
     @Override
     public Paged<User> getUsers(UserFilter userFilter, int pageNumber, int size) {
-        Page<User> users;
         Pageable pageable = PageRequest.of(pageNumber - 1, size);
-        dataSourceSwitcher.switchToUmDataSource();
-        if (userFilter == null || userFilter.isEmpty()) {
-            users = userRepository.findAll(pageable);
-        } else {
-            Predicate predicate = userFilterToPredicate(userFilter);
-            users = userRepository.findAll(predicate, pageable);
-        }
-        dataSourceSwitcher.switchToPreviousDataSource();
+        Page<User> users = dataSourceSwitcher.executeWithUmDataSource(() -> {
+            if (userFilter == null || userFilter.isEmpty()) {
+                return userRepository.findAll(pageable);
+            } else {
+                Predicate predicate = userFilterToPredicate(userFilter);
+                return userRepository.findAll(predicate, pageable);
+            }
+        });
+
+        return new Paged<>(users, Paging.of(users.getTotalPages(), pageNumber, size));
+    }
+
+    @Override
+    public KeysetPaged<User> getUsers(UserFilter userFilter, String cursor, int size) {
+        return getKeysetPage(userFilter, cursor, size, QUser.user, User::getId);
+    }
+
+    @Override
+    public Paged<UserView> getUserViews(UserFilter userFilter, int pageNumber, int size) {
+        Pageable pageable = PageRequest.of(pageNumber - 1, size);
+        Page<UserView> users = dataSourceSwitcher.executeWithUmDataSource(() -> {
+            Predicate predicate = userFilter == null || userFilter.isEmpty() ? null : userFilterToPredicate(userFilter);
+            long total = predicate == null ? userRepository.count() : userRepository.count(predicate);
+            List<UserView> content = Collections.emptyList();
+            if (total > pageable.getOffset()) {
+                content = fetchReadOnly(USER_VIEW_PROJECTION, new BooleanBuilder().and(predicate),
+                        QUser.user.id.asc(), pageable.getOffset(), size);
+            }
+            return new PageImpl<>(content, pageable, total);
+        });
 
         return new Paged<>(users, Paging.of(users.getTotalPages(), pageNumber, size));
     }
 
+    @Override
+    public KeysetPaged<UserView> getUserViews(UserFilter userFilter, String cursor, int size) {
+        return getKeysetPage(userFilter, cursor, size, USER_VIEW_PROJECTION, UserView::getId);
+    }
+
+    @Override
+    public Optional<UserDto> findUserDtoById(Long id) {
+        User cachedUser = userCache.getById(id);
+        if (cachedUser != null) {
+            return Optional.of(toUserDto(cachedUser));
+        }
+        return findUserDto(QUser.user.id.eq(id));
+    }
+
+    @Override
+    public Optional<UserDto> findUserDtoByLogin(String login) {
+        User cachedUser = userCache.getByLogin(login);
+        if (cachedUser != null) {
+            return Optional.of(toUserDto(cachedUser));
+        }
+        return findUserDto(QUser.user.login.eq(login));
+    }
+
     @Override
     public User getUserById(Long id) {
-        dataSourceSwitcher.switchToUmDataSource();
-        User user = userRepository.findById(id).orElse(EMPTY_USER);
-        dataSourceSwitcher.switchToPreviousDataSource();
+        User cachedUser = userCache.getById(id);
+        if (cachedUser != null) {
+            return cachedUser;
+        }
+        User user = dataSourceSwitcher.executeWithUmDataSource(() -> userRepository.findById(id).orElse(EMPTY_USER));
+        if (user != EMPTY_USER) {
+            userCache.put(user);
+        }
         return user;
     }
 
@@ -84,102 +203,141 @@ public class UserServiceImpl implements UserService {
     public User addUser(User user) {
         User savedUser;
         try {
-            dataSourceSwitcher.switchToUmDataSource();
-            savedUser = userRepository.save(user);
-            dataSourceSwitcher.switchToPreviousDataSource();
+            savedUser = dataSourceSwitcher.executeWithUmDataSource(() -> userRepository.save(user));
         }
         catch (Exception e) {
             throw new RuntimeException(e);
         }
+        userCache.invalidate(savedUser);
         return savedUser;
     }
 
     @Override
     public User updateUser(User user) {
         User updatedUser;
+        userCache.invalidate(user);
         try {
-            dataSourceSwitcher.switchToUmDataSource();
-            updatedUser = userRepository.save(user);
-            dataSourceSwitcher.switchToPreviousDataSource();
+            updatedUser = dataSourceSwitcher.executeWithUmDataSource(() -> userRepository.save(user));
         }
         catch (Exception e) {
             throw new RuntimeException(e);
         }
+        userCache.invalidate(updatedUser);
         return updatedUser;
     }
 
     @Override
     public User getUserByName(String name) {
-        dataSourceSwitcher.switchToUmDataSource();
-        List<User> users = userRepository.findUserByName(name);
-        dataSourceSwitcher.switchToPreviousDataSource();
+        return findUserByName(name)
+                .orElseThrow(() -> new UsernameNotFoundException(String.format("User: %s not found!", name)));
+    }
+
+    @Override
+    public User getUserByLogin(String login) {
+        return findUserByLogin(login).orElseThrow(() ->
+                new UsernameNotFoundException(String.format("User with login: %s not found!", login)));
+    }
+
+    @Override
+    public User getUserByEmail(String email) {
+        return findUserByEmail(email)
+                .orElseThrow(() -> new EmailNotFoundException(String.format("Email: %s not found!", email)));
+    }
+
+    @Override
+    public Optional<User> findUserByName(String name) {
+        List<User> users = dataSourceSwitcher.executeWithUmDataSource(() -> userRepository.findUserByName(name));
         if (users != null && users.size() > 0) {
-            return users.get(0);
+            return Optional.of(users.get(0));
         }
-        throw new UsernameNotFoundException(String.format("User: %s not found!", name));
+        return Optional.empty();
     }
 
     @Override
-    public User getUserByLogin(String login) {
-        dataSourceSwitcher.switchToUmDataSource();
-        List<User> users = userRepository.findByLogin(login);
-        dataSourceSwitcher.switchToPreviousDataSource();
+    public Optional<User> findUserByLogin(String login) {
+        User cachedUser = userCache.getByLogin(login);
+        if (cachedUser != null) {
+            return Optional.of(cachedUser);
+        }
+        List<User> users = dataSourceSwitcher.executeWithUmDataSource(() -> userRepository.findByLogin(login));
         if (users != null && users.size() > 0) {
-            return users.get(0);
+            userCache.put(users.get(0));
+            return Optional.of(users.get(0));
         }
-        throw new UsernameNotFoundException(String.format("User with login: %s not found!", login));
+        return Optional.empty();
     }
 
     @Override
-    public User getUserByEmail(String email) {
-        dataSourceSwitcher.switchToUmDataSource();
-        List<User> users = userRepository.findByEmail(email);
-        dataSourceSwitcher.switchToPreviousDataSource();
+    public Optional<User> findUserByEmail(String email) {
+        User cachedUser = userCache.getByEmail(email);
+        if (cachedUser != null) {
+            return Optional.of(cachedUser);
+        }
+        List<User> users = dataSourceSwitcher.executeWithUmDataSource(() -> userRepository.findByEmail(email));
         if (users != null && users.size() > 0) {
-            return users.get(0);
+            userCache.put(users.get(0));
+            return Optional.of(users.get(0));
         }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean existsByLogin(String login) {
+        if (login == null) return false;
+        if (userCache.getByLogin(login) != null) return true;
+        return dataSourceSwitcher.executeWithUmDataSource(() -> userRepository.existsByLogin(login));
+    }
 
-        throw new EmailNotFoundException(String.format("Email: %s not found!", email));
+    @Override
+    public boolean existsByEmail(String email) {
+        if (email == null) return false;
+        if (userCache.getByEmail(email) != null) return true;
+        return dataSourceSwitcher.executeWithUmDataSource(() -> userRepository.existsByEmail(email));
     }
 
     @Override
     public void deleteUser(User user) {
         if (user != null) {
-            dataSourceSwitcher.switchToUmDataSource();
-            userRepository.deleteByLogin(user.getLogin());
-            dataSourceSwitcher.switchToPreviousDataSource();
+            dataSourceSwitcher.runWithUmDataSource(() -> userRepository.deleteByLogin(user.getLogin()));
+            userCache.invalidate(user);
         }
     }
 
     @Override
     public User registerUser(String login, String username, String password, String email, Role role) {
-        User user = null;
-        try {
-            user = getUserByLogin(login);
-        } catch (UsernameNotFoundException e) {
-            //ignore
-        }
-
-        if (user != null) {
-            throw new UserExistsException(String.format("User %s already exists!", username));
+        if (!isUniquenessCheckedByDatabase()) {
+            if (existsByLogin(login)) {
+                throw new UserExistsException(String.format("User %s already exists!", username));
+            }
+            if (existsByEmail(email)) {
+                throw new EmailExistsException(String.format("Email %s already exists!", email));
+            }
         }
-
-        user = new User(login, username, password, email, role.name());
+        User user = new User(login, username, password, email, role.name());
+        User savedUser;
         try {
-            return addUser(user);
+            //uniqueness of login and email is checked by the database in the same insert
+            savedUser = dataSourceSwitcher.executeWithUmDataSource(() -> userRepository.saveAndFlush(user));
+        } catch (DataIntegrityViolationException e) {
+            String violatedIndex = getViolatedUniqueIndex(e, login, email);
+            if (EMAIL_UNIQUE_INDEX.equals(violatedIndex)) {
+                throw new EmailExistsException(String.format("Email %s already exists!", email), e);
+            }
+            if (LOGIN_UNIQUE_INDEX.equals(violatedIndex)) {
+                throw new UserExistsException(String.format("User %s already exists!", username), e);
+            }
+            throw new RuntimeException(e);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
+        userCache.invalidate(savedUser);
+        if (approximateUsersCount != null) approximateUsersCount.invalidate();
+        return savedUser;
     }
 
     @Override
     public void confirmUser(String login, String verificationId, boolean isAdminUser) {
-        User user = null;
-        try {
-            user = getUserByLogin(login);
-        } catch (UsernameNotFoundException e) {
-            //ignore
-        }
+        User user = findUserByLogin(login).orElse(null);
 
         if (isAdminUser && (verificationId == null || verificationId.isEmpty()) && user != null) {
             verificationId = user.getVerificationId();
@@ -198,6 +356,8 @@ public class UserServiceImpl implements UserService {
                     updateUser(user);
                 } catch (Exception e) {
                     throw new UserConfirmFailedException(e.getMessage(), e);
+                } finally {
+                    userCache.invalidate(user);
                 }
             }
         } else {
@@ -207,40 +367,37 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public String generateNewUserPassword(String recoveryId) {
-        UserRecoveryParams userRecoveryParams = passwordRecoveryIds.get(recoveryId);
-        if (userRecoveryParams.getExpirationTime().isAfter(LocalDateTime.now())) {
-            String newPassword = generateRandomPassword(15);
-            userRecoveryParams.getUser().setPassword(passwordEncoder.encode(newPassword));
-            return newPassword;
-        } else {
-            throw new RecoveryExpiredException("Recovery id " + "[" + recoveryId + "] is expired");
-        }
+        RecoveryToken recoveryToken = getActualRecoveryToken(recoveryId);
+        User user = getRecoveryTokenUser(recoveryToken);
+        String newPassword = generateRandomPassword(15);
+        user.setPassword(passwordEncoder.encode(newPassword));
+        updateUser(user);
+        recoveryTokenStore.remove(recoveryId);
+        return newPassword;
     }
 
     @Override
     public Map<String, User> getUserRecoveryId(String loginOrEmail) {
-        dataSourceSwitcher.switchToUmDataSource();
-        List<User> users = userRepository.findByEmail(loginOrEmail);
-        if (users.size() == 0) {
-            users = userRepository.findByLogin(loginOrEmail);
-        }
-        dataSourceSwitcher.switchToPreviousDataSource();
+        List<User> users = dataSourceSwitcher.executeWithUmDataSource(() -> {
+            List<User> usersByEmail = userRepository.findByEmail(loginOrEmail);
+            return usersByEmail.size() == 0 ? userRepository.findByLogin(loginOrEmail) : usersByEmail;
+        });
         if (users.size() == 0) {
             throw new UsernameNotFoundException("Such user not found");
         }
 
-        UserRecoveryParams userRecoveryParams = new UserRecoveryParams(users.get(0));
-        passwordRecoveryIds.put(userRecoveryParams.getRecoveryId(), userRecoveryParams);
-        return Collections.singletonMap(userRecoveryParams.getRecoveryId(), userRecoveryParams.getUser());
+        User user = users.get(0);
+        RecoveryToken recoveryToken = recoveryTokenStore.create(user.getId());
+        return Collections.singletonMap(recoveryToken.getToken(), user);
     }
 
     @Override
     public User getUserByRecoveryId(String recoveryId) {
-        UserRecoveryParams userRecoveryParams = passwordRecoveryIds.get(recoveryId);
-        if (userRecoveryParams == null) {
+        RecoveryToken recoveryToken = recoveryTokenStore.get(recoveryId);
+        if (recoveryToken == null) {
             throw new UsernameNotFoundException("User with recoveryId = " + recoveryId + " not found!");
         }
-        return userRecoveryParams.getUser();
+        return getRecoveryTokenUser(recoveryToken);
     }
 
     @Override
@@ -249,14 +406,9 @@ public class UserServiceImpl implements UserService {
 
         if (role.equals(Role.ROLE_ADMIN)) {
             if (authorizedName != null && !authorizedName.isEmpty()) {
-                try {
-                    User admin = getUserByLogin(authorizedName);
-                    if (!Role.ROLE_ADMIN.name().equals(admin.getAuthority())) {
-                        granted = false;
-                    }
-                } catch (UsernameNotFoundException e) {
-                    granted = false;
-                }
+                granted = findUserByLogin(authorizedName)
+                        .map(admin -> Role.ROLE_ADMIN.name().equals(admin.getAuthority()))
+                        .orElse(false);
             }
             else {
                 granted = false;
@@ -268,17 +420,17 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User processOAuthPostLogin(OAuth2User oAuth2User) {
-        User user = null;
         String email = oAuth2User.getAttribute("email");
-        try {
-            user = getUserByEmail(email);
-        } catch (EmailNotFoundException e) {
-            //ignore, it's ok
-        }
+        User user = findUserByEmail(email).orElse(null);
 
         if (user == null) {
-            user = registerUser(email, email, "", email, Role.ROLE_USER);
-            confirmUser(user.getLogin(), user.getVerificationId(), true);
+            try {
+                user = registerUser(email, email, "", email, Role.ROLE_USER);
+                confirmUser(user.getLogin(), user.getVerificationId(), true);
+            } catch (UserExistsException e) {
+                //user has been registered by the concurrent login
+                user = getUserByEmail(email);
+            }
         }
 
         return user;
@@ -288,13 +440,195 @@ public class UserServiceImpl implements UserService {
     public User getUserByOAuth2Token(OAuth2AuthenticationToken token) {
         OAuth2User oAuth2User = token.getPrincipal();
         String email = oAuth2User.getAttribute("email");
+        return findUserByEmail(email).orElse(null);
+    }
+
+    @Override
+    public UserImportResult importUsers(Reader reader, UserImportFormat format) {
+        UserImportResult result = new UserImportResult();
+        Set<String> importedLogins = new HashSet<>();
+        Set<String> importedEmails = new HashSet<>();
+        try {
+            UserImportReader importReader = format == UserImportFormat.JSON ?
+                    new JsonUserImportReader(reader) : new CsvUserImportReader(reader);
+            Map<Integer, UserImportRecord> chunk = new LinkedHashMap<>();
+            int recordNumber = 0;
+            UserImportRecord record;
+            while ((record = importReader.read()) != null) {
+                chunk.put(++recordNumber, record);
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    importChunk(chunk, importedLogins, importedEmails, result);
+                    chunk.clear();
+                }
+            }
+            importChunk(chunk, importedLogins, importedEmails, result);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading users error: " + e.getMessage(), e);
+        } finally {
+            if (approximateUsersCount != null) approximateUsersCount.invalidate();
+            log.info("Users import finished: {}", result);
+        }
+        return result;
+    }
+
+    @Override
+    public void exportUsers(Writer writer, UserFilter userFilter) {
+        try {
+            writer.write("id,login,name,email,role,expiration_date\n");
+            bulkOperations.forEachUser(userFilter, EXPORT_CHUNK_SIZE, rs -> {
+                try {
+                    writer.write(rs.getLong("id") + "," + toCsvValue(rs.getString("login")) + "," +
+                            toCsvValue(rs.getString("name")) + "," + toCsvValue(rs.getString("email")) + "," +
+                            toCsvValue(rs.getString("authority")) + "," + rs.getTimestamp("expiration_date") + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Writing users error: " + e.getMessage(), e);
+        }
+    }
+
+    private void importChunk(Map<Integer, UserImportRecord> chunk, Set<String> importedLogins,
+                             Set<String> importedEmails, UserImportResult result) {
+        Map<Integer, UserImportRecord> validRecords = new LinkedHashMap<>();
+        for (Map.Entry<Integer, UserImportRecord> entry : chunk.entrySet()) {
+            String error = validateImportRecord(entry.getValue());
+            if (error != null) {
+                result.addFailed(entry.getKey(), error);
+            } else {
+                validRecords.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (validRecords.isEmpty()) {
+            return;
+        }
+
+        Set<String> logins = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (UserImportRecord record : validRecords.values()) {
+            logins.add(record.getLogin());
+            emails.add(record.getEmail());
+        }
+        Set<String> existingLogins = bulkOperations.findExistingLogins(logins);
+        Set<String> existingEmails = bulkOperations.findExistingEmails(emails);
+
+        Map<Integer, User> users = new LinkedHashMap<>();
+        for (Map.Entry<Integer, UserImportRecord> entry : validRecords.entrySet()) {
+            UserImportRecord record = entry.getValue();
+            if (existingLogins.contains(record.getLogin()) || !importedLogins.add(record.getLogin())) {
+                result.addSkipped(entry.getKey(), String.format("User %s already exists!", record.getLogin()));
+            } else if (existingEmails.contains(record.getEmail()) || !importedEmails.add(record.getEmail())) {
+                importedLogins.remove(record.getLogin());
+                result.addSkipped(entry.getKey(), String.format("Email %s already exists!", record.getEmail()));
+            } else {
+                users.put(entry.getKey(), createImportedUser(record));
+            }
+        }
+        if (users.isEmpty()) {
+            return;
+        }
+        encodePasswords(users.values());
+
         try {
-            return getUserByEmail(email);
-        } catch (EmailNotFoundException e) {
-            return null;
+            result.addImported(bulkOperations.insert(new ArrayList<>(users.values())));
+        } catch (DataAccessException e) {
+            //users may be added concurrently, the chunk is rolled back and inserted one by one to find failed ones
+            log.warn("Batch insert of users failed, inserting one by one: {}", e.getMessage());
+            for (Map.Entry<Integer, User> entry : users.entrySet()) {
+                try {
+                    result.addImported(bulkOperations.insert(Collections.singletonList(entry.getValue())));
+                } catch (DataAccessException ex) {
+                    result.addFailed(entry.getKey(), "Saving user " + entry.getValue().getLogin() + " error!");
+                }
+            }
+        }
+    }
+
+    private String validateImportRecord(UserImportRecord record) {
+        String login = record.getLogin();
+        String email = record.getEmail();
+        if (login == null || login.isEmpty() || login.length() > MAX_LOGIN_LENGTH) {
+            return "Wrong login: " + login;
+        }
+        if (email == null || email.length() > MAX_EMAIL_LENGTH || !ValidatingHelper.isValidEmail(email)) {
+            return "Wrong email: " + email;
+        }
+        if (record.getName() != null && record.getName().length() > MAX_NAME_LENGTH) {
+            return "Wrong name: " + record.getName();
+        }
+        return null;
+    }
+
+    private User createImportedUser(UserImportRecord record) {
+        String name = record.getName() == null || record.getName().isEmpty() ? record.getLogin() : record.getName();
+        String password = record.getPassword() == null ? "" : record.getPassword();
+        User user = new User(record.getLogin(), name, password, record.getEmail(),
+                Role.getRole(record.getRole()).name());
+        //imported users do not need confirmation
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.YEAR, 100);
+        user.setExpirationDate(calendar.getTime());
+        return user;
+    }
+
+    /**
+     * Replaces raw passwords of the users with encoded ones, the passwords are encoded in parallel if possible.
+     */
+    private void encodePasswords(Collection<User> users) {
+        List<User> rawPasswordUsers = new ArrayList<>();
+        List<String> rawPasswords = new ArrayList<>();
+        for (User user : users) {
+            if (!user.getPassword().isEmpty() && !isEncodedPassword(user.getPassword())) {
+                rawPasswordUsers.add(user);
+                rawPasswords.add(user.getPassword());
+            }
+        }
+        List<String> encodedPasswords;
+        if (passwordEncoder instanceof BoundedPasswordEncoder) {
+            encodedPasswords = ((BoundedPasswordEncoder) passwordEncoder).encodeAll(rawPasswords);
+        } else {
+            encodedPasswords = rawPasswords.stream().map(passwordEncoder::encode).collect(Collectors.toList());
+        }
+        for (int i = 0; i < rawPasswordUsers.size(); i++) {
+            rawPasswordUsers.get(i).setPassword(encodedPasswords.get(i));
         }
     }
 
+    /**
+     * @return true if the password is bcrypt hash or, in delegating mode, hash prefixed with id of the known encoder
+     */
+    private boolean isEncodedPassword(String password) {
+        if (delegatingPasswordEncoder) {
+            String bcryptPrefix = "{" + BeansConfig.BCRYPT_ENCODER_ID + "}";
+            String pbkdf2Prefix = "{" + BeansConfig.PBKDF2_ENCODER_ID + "}";
+            if (password.startsWith(bcryptPrefix)) {
+                return isBcryptHash(password.substring(bcryptPrefix.length()));
+            }
+            if (password.startsWith(pbkdf2Prefix)) {
+                return password.length() > pbkdf2Prefix.length() &&
+                        password.substring(pbkdf2Prefix.length()).matches("^[0-9a-fA-F]+$");
+            }
+        }
+        return isBcryptHash(password);
+    }
+
+    private static boolean isBcryptHash(String password) {
+        return password.length() == 60 && password.matches("^\\$2[aby]?\\$\\d\\d\\$.*");
+    }
+
+    private static String toCsvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 ||
+                value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
     private static String generateRandomPassword(int length) {
         String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
         SecureRandom random = new SecureRandom();
@@ -304,27 +638,166 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.joining());
     }
 
-    private static class UserRecoveryParams {
-        private final User user;
-        private final String recoveryId;
-        private final LocalDateTime expirationTime;
+    private <T> KeysetPaged<T> getKeysetPage(UserFilter userFilter, String cursor, int size,
+                                             Expression<T> projection, ToLongFunction<T> idGetter) {
+        KeysetCursor keysetCursor = KeysetCursor.decode(cursor);
+        boolean forward = keysetCursor == null || keysetCursor.isForward();
+        List<T> rows = dataSourceSwitcher.executeWithUmDataSource(() -> {
+            QUser user = QUser.user;
+            BooleanBuilder where = new BooleanBuilder();
+            if (userFilter != null && !userFilter.isEmpty()) {
+                where.and(userFilterToPredicate(userFilter));
+            }
+            if (keysetCursor != null) {
+                where.and(forward ? user.id.gt(keysetCursor.getId()) : user.id.lt(keysetCursor.getId()));
+            }
+            //one extra row shows whether there is the next page in the reading direction
+            return fetchReadOnly(projection, where, forward ? user.id.asc() : user.id.desc(), 0, size + 1L);
+        });
+
+        boolean hasMore = rows.size() > size;
+        List<T> users = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        if (!forward) {
+            Collections.reverse(users);
+        }
 
-        private UserRecoveryParams(User user) {
-            this.user = user;
-            this.recoveryId = UUID.randomUUID().toString();
-            this.expirationTime = LocalDateTime.now().plusDays(1);
+        String prevCursor = null;
+        String nextCursor = null;
+        if (!users.isEmpty()) {
+            long firstId = idGetter.applyAsLong(users.get(0));
+            long lastId = idGetter.applyAsLong(users.get(users.size() - 1));
+            if (forward) {
+                prevCursor = keysetCursor != null ? KeysetCursor.before(firstId).encode() : null;
+                nextCursor = hasMore ? KeysetCursor.after(lastId).encode() : null;
+            } else {
+                prevCursor = hasMore ? KeysetCursor.before(firstId).encode() : null;
+                nextCursor = KeysetCursor.after(lastId).encode();
+            }
+        } else if (keysetCursor != null) {
+            //cursor points beyond the end of the list, allow to return back including the boundary row
+            if (forward) {
+                prevCursor = KeysetCursor.before(keysetCursor.getId() + 1).encode();
+            } else {
+                nextCursor = KeysetCursor.after(keysetCursor.getId() - 1).encode();
+            }
         }
 
-        public User getUser() {
-            return user;
+        Long approximateCount = null;
+        if (approximateUsersCount != null && (userFilter == null || userFilter.isEmpty())) {
+            approximateCount = approximateUsersCount.get();
         }
 
-        public String getRecoveryId() {
-            return recoveryId;
+        return new KeysetPaged<>(users, KeysetPaging.of(size, prevCursor, nextCursor, approximateCount));
+    }
+
+    /**
+     * Fetches rows using short-lived entity manager, so loaded entities are not kept in the persistence context.
+     * Entities are loaded in read-only mode without snapshots for dirty checking.
+     */
+    private <T> List<T> fetchReadOnly(Expression<T> projection, Predicate where, OrderSpecifier<?> order,
+                                      long offset, long limit) {
+        EntityManager entityManager = managerFactory.createEntityManager();
+        try {
+            QUser user = QUser.user;
+            return new JPAQuery<T>(entityManager)
+                    .select(projection)
+                    .from(user)
+                    .where(where)
+                    .orderBy(order)
+                    .offset(offset)
+                    .limit(limit)
+                    .setHint(QueryHints.HINT_READONLY, true)
+                    .fetch();
+        } finally {
+            entityManager.close();
         }
+    }
+
+    private Optional<UserDto> findUserDto(Predicate where) {
+        List<UserDto> users = dataSourceSwitcher.executeWithUmDataSource(() ->
+                fetchReadOnly(USER_DTO_PROJECTION, where, QUser.user.id.asc(), 0, 1));
+        return users.isEmpty() ? Optional.empty() : Optional.of(users.get(0));
+    }
 
-        public LocalDateTime getExpirationTime() {
-            return expirationTime;
+    /**
+     * @return name of the violated unique index of login or email, null if the exception is not caused
+     * by the violation of these indexes (e.g. not null or length violation)
+     */
+    private String getViolatedUniqueIndex(DataIntegrityViolationException exception, String login, String email) {
+        boolean uniqueViolation = false;
+        Throwable cause = exception;
+        while (cause != null) {
+            if (cause instanceof ConstraintViolationException) {
+                String constraintName = ((ConstraintViolationException) cause).getConstraintName();
+                String index = findUniqueIndex(constraintName);
+                if (index != null) return index;
+            }
+            if (cause instanceof SQLException &&
+                    UNIQUE_VIOLATION_SQL_STATE.equals(((SQLException) cause).getSQLState())) {
+                uniqueViolation = true;
+            }
+            cause = cause.getCause();
         }
+        String index = findUniqueIndex(exception.getMostSpecificCause().getMessage());
+        if (index != null || !uniqueViolation) return index;
+        //index name is unknown, e.g. the index is created with another name
+        if (existsByEmail(email)) return EMAIL_UNIQUE_INDEX;
+        if (existsByLogin(login)) return LOGIN_UNIQUE_INDEX;
+        return null;
+    }
+
+    private static String findUniqueIndex(String text) {
+        if (text == null) return null;
+        String lowerText = text.toLowerCase();
+        if (lowerText.contains(EMAIL_UNIQUE_INDEX)) return EMAIL_UNIQUE_INDEX;
+        if (lowerText.contains(LOGIN_UNIQUE_INDEX)) return LOGIN_UNIQUE_INDEX;
+        return null;
+    }
+
+    /**
+     * @return true if unique indexes of login and email exist, otherwise they are not created
+     * (e.g. the migration has failed) and duplicates must be checked before the insert
+     */
+    private boolean isUniquenessCheckedByDatabase() {
+        Boolean exist = uniqueIndexesExist;
+        if (exist == null) {
+            try {
+                exist = bulkOperations.hasUniqueIndexes(LOGIN_UNIQUE_INDEX, EMAIL_UNIQUE_INDEX);
+            } catch (Exception e) {
+                log.warn("Checking unique indexes of users error: {}", e.getMessage());
+                return false;
+            }
+            if (!exist) {
+                log.error("Unique indexes {} and {} are not found, duplicates are checked before registration",
+                        LOGIN_UNIQUE_INDEX, EMAIL_UNIQUE_INDEX);
+            }
+            uniqueIndexesExist = exist;
+        }
+        return exist;
+    }
+
+    private static UserDto toUserDto(User user) {
+        return new UserDto(user.getId(), user.getLogin(), user.getName(), user.getEmail());
+    }
+
+    private RecoveryToken getActualRecoveryToken(String recoveryId) {
+        RecoveryToken recoveryToken = recoveryTokenStore.get(recoveryId);
+        if (recoveryToken == null) {
+            throw new UsernameNotFoundException("User with recoveryId = " + recoveryId + " not found!");
+        }
+        if (recoveryToken.isExpired()) {
+            recoveryTokenStore.remove(recoveryId);
+            throw new RecoveryExpiredException("Recovery id " + "[" + recoveryId + "] is expired");
+        }
+        return recoveryToken;
+    }
+
+    private User getRecoveryTokenUser(RecoveryToken recoveryToken) {
+        User user = getUserById(recoveryToken.getUserId());
+        if (user == EMPTY_USER) {
+            recoveryTokenStore.remove(recoveryToken.getToken());
+            throw new UsernameNotFoundException("User with id = " + recoveryToken.getUserId() + " not found!");
+        }
+        return user;
     }
 }
\ No newline at end of file
@@ -8,10 +8,13 @@ import io.github.vssavin.umlib.dto.UserFilter;
 import io.github.vssavin.umlib.entity.QUser;
 import io.github.vssavin.umlib.entity.Role;
 import io.github.vssavin.umlib.entity.User;
+import io.github.vssavin.umlib.helper.AuthorizedUserHolder;
+import io.github.vssavin.umlib.security.spring.UserPrincipal;
 import io.github.vssavin.umlib.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.servlet.ModelAndView;
@@ -28,6 +31,8 @@ public class UserUtils {
     private UserUtils(){}
 
     public static Long getUserId(HttpServletRequest request, UserService userService) {
+        UserPrincipal userPrincipal = getAuthorizedPrincipal(request);
+        if (userPrincipal != null) return userPrincipal.getId();
         long userId;
         userId = getAuthorizedUser(request, userService).getId();
         return userId;
@@ -43,7 +48,10 @@ public class UserUtils {
     public static void addUsernameToModel(HttpServletRequest request, UserService userService,
                                           ModelAndView modelAndView) {
         Principal principal = request.getUserPrincipal();
-        if (principal != null) {
+        UserPrincipal userPrincipal = getAuthorizedPrincipal(request);
+        if (userPrincipal != null) {
+            modelAndView.addObject("username", userPrincipal.getUserName());
+        } else if (principal != null) {
             try {
                 User user = getAuthorizedUser(request, userService);
                 if (user != null) modelAndView.addObject("username", user.getName());
@@ -55,34 +63,39 @@ public class UserUtils {
         }
     }
 
+    /**
+     * Checks the authority of the actual user, not the one kept in the session principal,
+     * see {@link io.github.vssavin.umlib.helper.SecurityHelper#isAuthorizedAdmin(UserService)}.
+     */
     public static boolean isAuthorizedAdmin(HttpServletRequest request, UserService userService) {
-        User user = getAuthorizedUser(request, userService);
+        User user = AuthorizedUserHolder.getAuthorizedUser(request, userService);
         return user != null && Role.getRole(user.getAuthority()) == Role.ROLE_ADMIN;
     }
 
     public static boolean isAuthorizedUser(HttpServletRequest request, UserService userService) {
-        User user = getAuthorizedUser(request, userService);
+        User user = AuthorizedUserHolder.getAuthorizedUser(request, userService);
         return user != null && Role.getRole(user.getAuthority()) == Role.ROLE_USER;
     }
 
     public static User getAuthorizedUser(HttpServletRequest request, UserService userService) {
         Principal principal = request.getUserPrincipal();
-        User user = null;
-        if (principal != null) {
-            try {
-                OAuth2AuthenticationToken token = (OAuth2AuthenticationToken) principal;
-                user = userService.getUserByOAuth2Token(token);
-            } catch (ClassCastException e) {
-                //ignore, it's ok'
-            }
-            if (user == null) {
-                user = userService.getUserByLogin(principal.getName());
-            }
-
+        if (principal == null) return null;
+        User user = AuthorizedUserHolder.getAuthorizedUser(request, userService);
+        if (user == null) {
+            throw new UsernameNotFoundException(String.format("User: %s not found!", principal.getName()));
         }
         return user;
     }
 
+    public static UserPrincipal getAuthorizedPrincipal(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal instanceof Authentication) {
+            Object authenticatedPrincipal = ((Authentication) principal).getPrincipal();
+            if (authenticatedPrincipal instanceof UserPrincipal) return (UserPrincipal) authenticatedPrincipal;
+        }
+        return null;
+    }
+
     public static Predicate userFilterToPredicate(UserFilter userFilter) {
         BooleanExpression expression = null;
         QUser user = QUser.user;
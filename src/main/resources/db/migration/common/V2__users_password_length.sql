@@ -0,0 +1 @@
+alter table users alter column password set data type varchar(255);
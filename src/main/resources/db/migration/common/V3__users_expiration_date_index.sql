@@ -0,0 +1 @@
+create index IF NOT EXISTS idx_users_expiration_date on users(expiration_date);
@@ -0,0 +1,2 @@
+alter table email_outbox add column IF NOT EXISTS claimed_at timestamp;
+update email_outbox set text = null where status = 'FAILED';
@@ -0,0 +1 @@
+create index IF NOT EXISTS idx_banned_ips_ban_expire_time on banned_ips(ban_expire_time);
@@ -0,0 +1 @@
+alter table users add column IF NOT EXISTS credentials_version bigint default 0 not null;
@@ -0,0 +1,3 @@
+create unique index IF NOT EXISTS ux_users_login on users(login);
+create unique index IF NOT EXISTS ux_users_email on users(email);
+create index IF NOT EXISTS idx_users_name on users(name);
@@ -0,0 +1,6 @@
+create unique index IF NOT EXISTS ux_users_login on users(login);
+create unique index IF NOT EXISTS ux_users_email on users(email);
+create index IF NOT EXISTS idx_users_name on users(name);
+create index IF NOT EXISTS idx_users_login_lower on users(lower(login) text_pattern_ops);
+create index IF NOT EXISTS idx_users_name_lower on users(lower(name) text_pattern_ops);
+create index IF NOT EXISTS idx_users_email_lower on users(lower(email) text_pattern_ops);
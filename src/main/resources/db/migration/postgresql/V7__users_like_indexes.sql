@@ -0,0 +1,6 @@
+drop index IF EXISTS idx_users_login_lower;
+drop index IF EXISTS idx_users_name_lower;
+drop index IF EXISTS idx_users_email_lower;
+create index IF NOT EXISTS idx_users_login_pattern on users(login varchar_pattern_ops);
+create index IF NOT EXISTS idx_users_name_pattern on users(name varchar_pattern_ops);
+create index IF NOT EXISTS idx_users_email_pattern on users(email varchar_pattern_ops);
@@ -2,13 +2,42 @@ create table IF NOT EXISTS users(
  id SERIAL primary key,
  login varchar(50) not null,
  name varchar(100) not null,
- password varchar(60) not null,
+ password varchar(255) not null,
  email varchar(50) not null,
  authority varchar(50) not null,
  expiration_date timestamp not null,
- verification_id varchar(50)
+ verification_id varchar(50),
+ credentials_version bigint default 0 not null
  );
 
+create table IF NOT EXISTS recovery_tokens(
+ token varchar(50) primary key,
+ user_id bigint not null,
+ expiration_time timestamp not null
+ );
+create index IF NOT EXISTS idx_recovery_tokens_user_id on recovery_tokens(user_id);
+create index IF NOT EXISTS idx_recovery_tokens_expiration_time on recovery_tokens(expiration_time);
+
+create table IF NOT EXISTS email_outbox(
+ id SERIAL primary key,
+ sender varchar(100),
+ recipient varchar(500) not null,
+ subject varchar(500),
+ text text,
+ status varchar(20) not null,
+ attempts int not null,
+ created_at timestamp not null,
+ claimed_at timestamp
+ );
+create index IF NOT EXISTS idx_email_outbox_status on email_outbox(status, id);
+
+create table IF NOT EXISTS banned_ips(
+ address varchar(64) primary key,
+ ban_expire_time timestamp not null,
+ updated_at timestamp not null
+ );
+create index IF NOT EXISTS idx_banned_ips_updated_at on banned_ips(updated_at);
+
 insert into users(login, name, password, email, authority, expiration_date)
 SELECT 'admin', 'admin', E'$2a$10$YdgnnXcd4W1IV2bXx9j8BevMDvfhHU1wNM5Puhmsbu1eknmqEsyCK', 'admin@example.com',
 'ROLE_ADMIN', '2099-01-01 00:00:00'
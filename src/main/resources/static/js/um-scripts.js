@@ -2,5 +2,10 @@ getKey = function() {
     var xmlHttp = new XMLHttpRequest();
     xmlHttp.open("GET", '/secure/key', false);
     xmlHttp.send(null);
+    var keyId = xmlHttp.getResponseHeader("X-Secure-Key-Id");
+    var keyIdInputs = document.getElementsByName("secureKeyId");
+    for (var i = 0; i < keyIdInputs.length; i++) {
+        keyIdInputs[i].value = keyId !== null ? keyId : "";
+    }
     return xmlHttp.responseText;
-};
\ No newline at end of file
+};
@@ -4,6 +4,7 @@ import io.github.vssavin.umlib.config.ApplicationConfig;
 import io.github.vssavin.umlib.config.UmTemplateResolverConfig;
 import io.github.vssavin.umlib.entity.User;
 import io.github.vssavin.umlib.service.SecureService;
+import io.github.vssavin.umlib.service.UserCache;
 import io.github.vssavin.umlib.utils.UmUtil;
 import org.apache.log4j.xml.DOMConfigurator;
 import org.junit.Before;
@@ -47,6 +48,7 @@ public abstract class AbstractTest {
     protected MockMvc mockMvc;
     protected SecureService secureService;
     private WebApplicationContext context;
+    private UserCache userCache;
 
     @Autowired
     public void setContext(WebApplicationContext context) {
@@ -58,8 +60,14 @@ public abstract class AbstractTest {
         secureService = umUtil.getAuthService();
     }
 
+    @Autowired
+    public void setUserCache(UserCache userCache) {
+        this.userCache = userCache;
+    }
+
     @Before
     public void setup() {
+        userCache.invalidateAll();
         mockMvc = MockMvcBuilders
                 .webAppContextSetup(context)
                 .apply(springSecurity())
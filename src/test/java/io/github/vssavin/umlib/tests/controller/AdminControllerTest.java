@@ -18,6 +18,8 @@ import org.springframework.web.servlet.ModelAndView;
 
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -68,6 +70,31 @@ public class AdminControllerTest extends AbstractTest {
                 .andExpect(status().is(302));
     }
 
+    @Test
+    public void registerUserFailedSuchLoginExists() throws Exception {
+        String login = "user";
+        ResultActions resultActions = mockMvc.perform(post(BASE_URL + "/perform-register/")
+                .params(createRegisterParams(login, "user_duplicate@example.com"))
+                .with(getRequestPostProcessorForUser(testUser))
+                .with(csrf()));
+        String messagePattern = registrationMessageSource.getMessage(MessageKeys.USER_EXISTS_PATTERN.getMessageKey(),
+                new Object[]{}, LocaleConfig.DEFAULT_LOCALE);
+        resultActions.andExpect(model().attribute("error", true))
+                .andExpect(model().attribute("errorMsg", String.format(messagePattern, login)));
+    }
+
+    @Test
+    public void registerUserFailedSuchEmailExists() throws Exception {
+        ResultActions resultActions = mockMvc.perform(post(BASE_URL + "/perform-register/")
+                .params(createRegisterParams("user_duplicate", "user@example.com"))
+                .with(getRequestPostProcessorForUser(testUser))
+                .with(csrf()));
+        String message = registrationMessageSource.getMessage(MessageKeys.EMAIL_EXISTS_MESSAGE.getMessageKey(),
+                new Object[]{}, LocaleConfig.DEFAULT_LOCALE);
+        resultActions.andExpect(model().attribute("error", true))
+                .andExpect(model().attribute("errorMsg", message));
+    }
+
     @Test
     public void changeUserPasswordSuccessful() throws Exception {
         String newPassword = "admin2";
@@ -297,4 +324,58 @@ public class AdminControllerTest extends AbstractTest {
         boolean error = modelAndView.getModel().containsKey("error");
         Assertions.assertTrue(error);
     }
+
+    @Test
+    public void importUsersFromCsvSuccessful() throws Exception {
+        String csv = "login,name,password,email,role\n" +
+                "imported1,\"Imported, First\",imported1,imported1@example.com,ROLE_USER\n" +
+                "imported2,imported2,,imported2@example.com,ROLE_USER\n" +
+                "user,user,user,user_duplicate@example.com,ROLE_USER\n" +
+                "imported3,imported3,,wrong email,ROLE_USER\n";
+        mockMvc.perform(post(BASE_URL + "/users/import")
+                        .contentType("text/csv")
+                        .content(csv)
+                        .with(getRequestPostProcessorForUser(testUser))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.skipped").value(1))
+                .andExpect(jsonPath("$.failed").value(1));
+    }
+
+    @Test
+    public void importUsersFromJsonSuccessful() throws Exception {
+        String json = "[{\"login\": \"imported1\", \"email\": \"imported1@example.com\", \"role\": \"ROLE_USER\"}," +
+                "{\"login\": \"imported2\", \"email\": \"imported2@example.com\"}]";
+        mockMvc.perform(post(BASE_URL + "/users/import")
+                        .contentType("application/json")
+                        .content(json)
+                        .with(getRequestPostProcessorForUser(testUser))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2));
+    }
+
+    @Test
+    public void exportUsersSuccessful() throws Exception {
+        String csv = mockMvc.perform(get(BASE_URL + "/users/export")
+                        .with(getRequestPostProcessorForUser(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+        Assertions.assertTrue(csv.startsWith("id,login,name,email,role,expiration_date"));
+        Assertions.assertTrue(csv.contains(",admin,admin,admin@example.com,ROLE_ADMIN,"));
+        Assertions.assertFalse(csv.contains("$2a$"));
+    }
+
+    private MultiValueMap<String, String> createRegisterParams(String login, String email) throws Exception {
+        MultiValueMap<String, String> registerParams = new LinkedMultiValueMap<>();
+        String encodedPassword = encrypt("", login);
+        registerParams.add("login", login);
+        registerParams.add("username", login);
+        registerParams.add("email", email);
+        registerParams.add("password", encodedPassword);
+        registerParams.add("confirmPassword", encodedPassword);
+        return registerParams;
+    }
 }
@@ -14,6 +14,7 @@ import org.springframework.util.MultiValueMap;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.Collections;
 import java.util.List;
 
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -108,6 +109,25 @@ public class UserControllerTest extends AbstractTest {
                 .andExpect(status().is(302));
     }
 
+    @Test
+    public void registrationFailedNameTooLong() throws Exception {
+        MultiValueMap<String, String> registerParams = new LinkedMultiValueMap<>();
+        String login = "user4";
+        registerParams.add("login", login);
+        registerParams.add("username", String.join("", Collections.nCopies(101, "n")));
+        registerParams.add("email", "user4@example.com");
+        registerParams.add("password", encrypt("", testUser.getPassword()));
+        registerParams.add("confirmPassword", encrypt("", testUser.getPassword()));
+        ResultActions resultActions = mockMvc.perform(post(BASE_URL + "/perform-register")
+                .params(registerParams)
+                .with(csrf()));
+        String message = registrationMessageSource.getMessage(MessageKeys.CREATE_USER_ERROR_MESSAGE.getMessageKey(),
+                new Object[]{}, LocaleConfig.DEFAULT_LOCALE);
+        //length violation is not reported as existing user
+        resultActions.andExpect(model().attribute("error", true))
+                .andExpect(model().attribute("errorMsg", message));
+    }
+
     @Test
     public void changeUserPasswordSuccessful() throws Exception {
         String currentPassword = testUser.getPassword();
@@ -0,0 +1,177 @@
+package io.github.vssavin.umlib.tests.unit;
+
+import io.github.vssavin.umlib.metrics.NoOpUmMetrics;
+import io.github.vssavin.umlib.service.impl.AsyncEmailDispatcher;
+import io.github.vssavin.umlib.service.impl.JdbcEmailOutbox;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.H2;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class AsyncEmailDispatcherTest {
+
+    @Test
+    public void queuedEmailsSentInBatches() throws InterruptedException {
+        RecordingMailSender mailSender = new RecordingMailSender(0);
+        CountDownLatch serverReady = new CountDownLatch(1);
+        mailSender.setServerReady(serverReady);
+        AsyncEmailDispatcher dispatcher = new AsyncEmailDispatcher(mailSender, null, 100, 1, 10, 3, 10);
+        for (int i = 0; i < 25; i++) {
+            dispatcher.submit(createMessage("user" + i + "@example.com"));
+        }
+        serverReady.countDown();
+
+        waitFor(() -> dispatcher.getSentCount() == 25);
+        dispatcher.shutdown();
+
+        Assertions.assertEquals(25, mailSender.getSentMessages().size());
+        Assertions.assertTrue(mailSender.getBatchCount() <= 4);
+    }
+
+    @Test
+    public void failedEmailsRetried() throws InterruptedException {
+        RecordingMailSender mailSender = new RecordingMailSender(2);
+        AsyncEmailDispatcher dispatcher = new AsyncEmailDispatcher(mailSender, null, 100, 1, 10, 5, 10);
+        dispatcher.submit(createMessage("user@example.com"));
+
+        waitFor(() -> dispatcher.getSentCount() == 1);
+        dispatcher.shutdown();
+
+        Assertions.assertEquals(1, mailSender.getSentMessages().size());
+        Assertions.assertEquals(2, dispatcher.getRetryCount());
+        Assertions.assertEquals(0, dispatcher.getFailedCount());
+    }
+
+    @Test
+    public void emailDroppedAfterMaxAttempts() throws InterruptedException {
+        RecordingMailSender mailSender = new RecordingMailSender(Integer.MAX_VALUE);
+        AsyncEmailDispatcher dispatcher = new AsyncEmailDispatcher(mailSender, null, 100, 1, 10, 3, 10);
+        dispatcher.submit(createMessage("user@example.com"));
+
+        waitFor(() -> dispatcher.getFailedCount() == 1);
+        dispatcher.shutdown();
+
+        Assertions.assertEquals(0, mailSender.getSentMessages().size());
+        Assertions.assertEquals(2, dispatcher.getRetryCount());
+    }
+
+    @Test
+    public void submitFailsIfQueueIsFull() {
+        RecordingMailSender mailSender = new RecordingMailSender(0);
+        AsyncEmailDispatcher dispatcher = new AsyncEmailDispatcher(mailSender, null, 1, 1, 1, 1, 10);
+        dispatcher.shutdown();
+        dispatcher.submit(createMessage("user1@example.com"));
+
+        Assertions.assertThrows(MailSendException.class,
+                () -> dispatcher.submit(createMessage("user2@example.com")));
+    }
+
+    @Test
+    public void emailLeftInOutboxIfQueueIsFullSentLater() throws InterruptedException {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(H2)
+                .addScript("init.sql").build();
+        RecordingMailSender mailSender = new RecordingMailSender(0);
+        CountDownLatch serverReady = new CountDownLatch(1);
+        mailSender.setServerReady(serverReady);
+        AsyncEmailDispatcher dispatcher = new AsyncEmailDispatcher(mailSender, new JdbcEmailOutbox(database), 1, 1,
+                1, 3, 10, 50, NoOpUmMetrics.INSTANCE);
+        try {
+            dispatcher.submit(createMessage("user1@example.com"));
+            waitFor(() -> dispatcher.getQueueSize() == 0);
+            dispatcher.submit(createMessage("user2@example.com"));
+            dispatcher.submit(createMessage("user3@example.com"));
+            serverReady.countDown();
+
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+            waitFor(() -> dispatcher.getSentCount() == 3 &&
+                    jdbcTemplate.queryForObject("select count(*) from email_outbox", Integer.class) == 0);
+            Assertions.assertEquals(3, mailSender.getSentMessages().size());
+            Assertions.assertEquals(0, jdbcTemplate.queryForObject("select count(*) from email_outbox", Integer.class));
+        } finally {
+            dispatcher.shutdown();
+            database.shutdown();
+        }
+    }
+
+    private static SimpleMailMessage createMessage(String to) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("um@example.com");
+        message.setTo(to);
+        message.setSubject("subject");
+        message.setText("text");
+        return message;
+    }
+
+    private static void waitFor(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.isMet() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+
+    /**
+     * Stands in for the SMTP server: records sent messages and fails the specified count of sending attempts.
+     */
+    private static class RecordingMailSender extends JavaMailSenderImpl {
+        private final List<SimpleMailMessage> sentMessages = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger batchCount = new AtomicInteger();
+        private final AtomicInteger failuresLeft;
+        private volatile CountDownLatch serverReady;
+
+        RecordingMailSender(int failures) {
+            this.failuresLeft = new AtomicInteger(failures);
+        }
+
+        @Override
+        public void send(SimpleMailMessage... simpleMessages) throws MailException {
+            awaitServer();
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new MailSendException("Mail server connection failed");
+            }
+            batchCount.incrementAndGet();
+            Collections.addAll(sentMessages, simpleMessages);
+        }
+
+        void setServerReady(CountDownLatch serverReady) {
+            this.serverReady = serverReady;
+        }
+
+        List<SimpleMailMessage> getSentMessages() {
+            return sentMessages;
+        }
+
+        int getBatchCount() {
+            return batchCount.get();
+        }
+
+        private void awaitServer() {
+            CountDownLatch latch = serverReady;
+            if (latch == null) return;
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.vssavin.umlib.tests.unit;
+
+import io.github.vssavin.umlib.security.spring.AuthenticationRateLimiter;
+import io.github.vssavin.umlib.security.spring.LocalBanStore;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class AuthenticationRateLimiterTest {
+    private static final String IP = "127.0.0.1";
+
+    @Test
+    public void addressBannedAfterMaxFailures() {
+        MutableClock clock = new MutableClock();
+        AuthenticationRateLimiter rateLimiter = new AuthenticationRateLimiter(3, 60_000, 600_000, 100, clock);
+
+        Assertions.assertFalse(rateLimiter.registerFailure(IP));
+        Assertions.assertFalse(rateLimiter.registerFailure(IP));
+        Assertions.assertFalse(rateLimiter.isBanned(IP));
+        Assertions.assertTrue(rateLimiter.registerFailure(IP));
+        Assertions.assertTrue(rateLimiter.isBanned(IP));
+
+        clock.advance(600_001);
+        Assertions.assertFalse(rateLimiter.isBanned(IP));
+    }
+
+    @Test
+    public void banSharedThroughBanStore() {
+        MutableClock clock = new MutableClock();
+        LocalBanStore banStore = new LocalBanStore(clock);
+        AuthenticationRateLimiter first = new AuthenticationRateLimiter(1, 60_000, 600_000, 100, clock, banStore);
+        AuthenticationRateLimiter second = new AuthenticationRateLimiter(1, 60_000, 600_000, 100, clock, banStore);
+
+        first.registerFailure(IP);
+        Assertions.assertTrue(second.isBanned(IP));
+
+        second.reset(IP);
+        Assertions.assertFalse(first.isBanned(IP));
+    }
+
+    @Test
+    public void failuresOutsideWindowNotCounted() {
+        MutableClock clock = new MutableClock();
+        AuthenticationRateLimiter rateLimiter = new AuthenticationRateLimiter(3, 60_000, 600_000, 100, clock);
+
+        rateLimiter.registerFailure(IP);
+        rateLimiter.registerFailure(IP);
+        clock.advance(60_001);
+
+        Assertions.assertFalse(rateLimiter.registerFailure(IP));
+        Assertions.assertFalse(rateLimiter.isBanned(IP));
+    }
+
+    @Test
+    public void expiredEntriesEvicted() {
+        MutableClock clock = new MutableClock();
+        AuthenticationRateLimiter rateLimiter = new AuthenticationRateLimiter(3, 60_000, 600_000, 100, clock);
+
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.registerFailure("10.0.0." + i);
+        }
+        Assertions.assertEquals(10, rateLimiter.getTrackedKeysCount());
+
+        clock.advance(60_001);
+        Assertions.assertEquals(10, rateLimiter.evictExpired());
+        Assertions.assertEquals(0, rateLimiter.getTrackedKeysCount());
+    }
+
+    @Test
+    public void trackedAddressesLimited() {
+        MutableClock clock = new MutableClock();
+        AuthenticationRateLimiter rateLimiter = new AuthenticationRateLimiter(3, 60_000, 600_000, 5, clock);
+
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.registerFailure("10.0.0." + i);
+        }
+
+        Assertions.assertEquals(5, rateLimiter.getTrackedKeysCount());
+        Assertions.assertFalse(rateLimiter.registerFailure("10.0.0.9"));
+        Assertions.assertEquals(0, rateLimiter.getBannedKeysCount());
+    }
+
+    private static class MutableClock extends Clock {
+        private long millis = 1_000_000;
+
+        private void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+    }
+}
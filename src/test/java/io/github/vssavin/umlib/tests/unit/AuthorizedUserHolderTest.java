@@ -0,0 +1,140 @@
+package io.github.vssavin.umlib.tests.unit;
+
+import io.github.vssavin.umlib.entity.Role;
+import io.github.vssavin.umlib.entity.User;
+import io.github.vssavin.umlib.helper.AuthorizedUserHolder;
+import io.github.vssavin.umlib.security.spring.UserPrincipal;
+import io.github.vssavin.umlib.service.UserService;
+import io.github.vssavin.umlib.utils.UserUtils;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class AuthorizedUserHolderTest {
+
+    @Test
+    public void userResolvedOncePerRequest() {
+        AtomicInteger calls = new AtomicInteger();
+        UserService userService = createUserService(calls);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setUserPrincipal(new UsernamePasswordAuthenticationToken("user", "password"));
+
+        User first = AuthorizedUserHolder.getAuthorizedUser(request, userService);
+        User second = AuthorizedUserHolder.getAuthorizedUser(request, userService);
+
+        Assertions.assertEquals("user", first.getLogin());
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void userResolvedAgainIfPrincipalChanged() {
+        AtomicInteger calls = new AtomicInteger();
+        UserService userService = createUserService(calls);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setUserPrincipal(new UsernamePasswordAuthenticationToken("user", "password"));
+        AuthorizedUserHolder.getAuthorizedUser(request, userService);
+
+        request.setUserPrincipal(new UsernamePasswordAuthenticationToken("admin", "password"));
+        User user = AuthorizedUserHolder.getAuthorizedUser(request, userService);
+
+        Assertions.assertEquals("admin", user.getLogin());
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void missingUserIsNotResolvedAgain() {
+        AtomicInteger calls = new AtomicInteger();
+        UserService userService = createUserService(calls);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setUserPrincipal(new UsernamePasswordAuthenticationToken("unknown", "password"));
+
+        Assertions.assertNull(AuthorizedUserHolder.getAuthorizedUser(request, userService));
+        Assertions.assertNull(AuthorizedUserHolder.getAuthorizedUser(request, userService));
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void adminAuthorizedByActualAuthority() {
+        Map<String, User> users = new HashMap<>();
+        users.put("admin", createUser("admin", Role.ROLE_ADMIN));
+        MockHttpServletRequest request = createAdminRequest();
+
+        Assertions.assertTrue(UserUtils.isAuthorizedAdmin(request, createUserService(users)));
+    }
+
+    @Test
+    public void demotedAdminIsNotAuthorizedAdmin() {
+        Map<String, User> users = new HashMap<>();
+        users.put("admin", createUser("admin", Role.ROLE_USER));
+        MockHttpServletRequest request = createAdminRequest();
+
+        Assertions.assertFalse(UserUtils.isAuthorizedAdmin(request, createUserService(users)));
+    }
+
+    @Test
+    public void deletedAdminIsNotAuthorizedAdmin() {
+        MockHttpServletRequest request = createAdminRequest();
+
+        Assertions.assertFalse(UserUtils.isAuthorizedAdmin(request, createUserService(new HashMap<>())));
+    }
+
+    /**
+     * Creates request of the admin, whose session principal was created at login with the admin authority.
+     */
+    private static MockHttpServletRequest createAdminRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        UserPrincipal principal = new UserPrincipal(createUser("admin", Role.ROLE_ADMIN));
+        request.setUserPrincipal(new UsernamePasswordAuthenticationToken(principal, null,
+                Collections.singletonList(new SimpleGrantedAuthority(Role.ROLE_ADMIN.name()))));
+        return request;
+    }
+
+    private static User createUser(String login, Role role) {
+        return User.builder().id(1L).login(login).name(login).password("password").email(login + "@example.com")
+                .authority(role.name()).build();
+    }
+
+    /**
+     * Creates user service which finds users of the map by login.
+     */
+    private static UserService createUserService(Map<String, User> users) {
+        return (UserService) Proxy.newProxyInstance(UserService.class.getClassLoader(),
+                new Class<?>[]{UserService.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findUserByLogin") || method.getName().equals("findUserByEmail")) {
+                        return Optional.ofNullable(users.get((String) args[0]));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Creates user service which finds users with logins "user" and "admin" and counts lookups.
+     */
+    private static UserService createUserService(AtomicInteger calls) {
+        return (UserService) Proxy.newProxyInstance(UserService.class.getClassLoader(),
+                new Class<?>[]{UserService.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findUserByLogin") || method.getName().equals("findUserByEmail")) {
+                        calls.incrementAndGet();
+                        String login = (String) args[0];
+                        if (login.equals("user") || login.equals("admin")) {
+                            return Optional.of(new User(login, login, "password", login + "@example.com", "USER"));
+                        }
+                        return Optional.empty();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.vssavin.umlib.tests.unit;
+
+import io.github.vssavin.umlib.exception.PasswordEncoderBusyException;
+import io.github.vssavin.umlib.security.spring.BoundedPasswordEncoder;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class BoundedPasswordEncoderTest {
+
+    @Test
+    public void passwordsEncodedAndMatched() {
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new ReversePasswordEncoder(null), 2, 10,
+                1000)) {
+            Assertions.assertEquals("drowssap", encoder.encode("password"));
+            Assertions.assertTrue(encoder.matches("password", "drowssap"));
+            Assertions.assertFalse(encoder.matches("password", "password"));
+            Assertions.assertEquals(3, encoder.getHashCount());
+        }
+    }
+
+    @Test
+    public void allPasswordsEncodedIfQueueIsFull() {
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new ReversePasswordEncoder(null), 1, 1,
+                1000)) {
+            List<String> encoded = encoder.encodeAll(Arrays.asList("1a", "2b", "3c", "4d", "5e"));
+            Assertions.assertEquals(Arrays.asList("a1", "b2", "c3", "d4", "e5"), encoded);
+        }
+    }
+
+    @Test
+    public void requestRejectedIfQueueIsFull() throws InterruptedException {
+        CountDownLatch hashingAllowed = new CountDownLatch(1);
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new ReversePasswordEncoder(hashingAllowed),
+                1, 1, 5000)) {
+            Thread running = new Thread(() -> encoder.encode("running"));
+            Thread queued = new Thread(() -> encoder.encode("queued"));
+            running.start();
+            waitFor(() -> encoder.getActiveCount() == 1);
+            queued.start();
+            waitFor(() -> encoder.getQueueSize() == 1);
+
+            Assertions.assertThrows(PasswordEncoderBusyException.class, () -> encoder.encode("rejected"));
+            Assertions.assertEquals(1, encoder.getRejectedCount());
+
+            hashingAllowed.countDown();
+            running.join();
+            queued.join();
+        }
+    }
+
+    @Test
+    public void loginNotRejectedDuringBatchEncoding() throws InterruptedException {
+        CountDownLatch hashingAllowed = new CountDownLatch(1);
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new ReversePasswordEncoder(hashingAllowed),
+                1, 4, 5000)) {
+            List<String> encoded = new ArrayList<>();
+            Thread batch = new Thread(() -> encoded.addAll(encoder.encodeAll(
+                    Arrays.asList("1a", "2b", "3c", "4d", "5e", "6f"))));
+            batch.start();
+            waitFor(() -> encoder.getActiveCount() == 1 && encoder.getQueueSize() == 1);
+            Thread.sleep(50);
+            Assertions.assertEquals(1, encoder.getQueueSize());
+
+            boolean[] matches = new boolean[2];
+            Thread firstLogin = new Thread(() -> matches[0] = encoder.matches("password", "drowssap"));
+            Thread secondLogin = new Thread(() -> matches[1] = encoder.matches("password", "drowssap"));
+            firstLogin.start();
+            secondLogin.start();
+            waitFor(() -> encoder.getQueueSize() == 3);
+            Assertions.assertEquals(0, encoder.getRejectedCount());
+
+            hashingAllowed.countDown();
+            batch.join();
+            firstLogin.join();
+            secondLogin.join();
+            Assertions.assertEquals(Arrays.asList("a1", "b2", "c3", "d4", "e5", "f6"), encoded);
+            Assertions.assertTrue(matches[0] && matches[1]);
+        }
+    }
+
+    private static void waitFor(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.isMet() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+
+    /**
+     * Fast stand-in for the hashing encoder, optionally waits for the latch before hashing.
+     */
+    private static class ReversePasswordEncoder implements PasswordEncoder {
+        private final CountDownLatch hashingAllowed;
+
+        ReversePasswordEncoder(CountDownLatch hashingAllowed) {
+            this.hashingAllowed = hashingAllowed;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (hashingAllowed != null) {
+                try {
+                    hashingAllowed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new StringBuilder(rawPassword).reverse().toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.vssavin.umlib.tests.unit;
+
+import io.github.vssavin.umlib.entity.User;
+import io.github.vssavin.umlib.service.impl.ExpiredUsersPurger;
+import io.github.vssavin.umlib.service.impl.InMemoryUserCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.H2;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class ExpiredUsersPurgerTest {
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(H2).addScript("init.sql").build();
+        jdbcTemplate = new JdbcTemplate(database);
+    }
+
+    @After
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void expiredUsersPurgedInBatches() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) {
+            insertUser("expired" + i, now - TimeUnit.HOURS.toMillis(1));
+        }
+        insertUser("actual", now + TimeUnit.DAYS.toMillis(1));
+        InMemoryUserCache userCache = new InMemoryUserCache(100, TimeUnit.MINUTES.toMillis(1));
+        User cachedUser = jdbcTemplate.queryForObject("select id, login, email from users where login = ?",
+                (rs, rowNum) -> User.builder().id(rs.getLong("id")).login(rs.getString("login"))
+                        .email(rs.getString("email")).build(), "expired0");
+        userCache.put(cachedUser);
+
+        ExpiredUsersPurger purger = new ExpiredUsersPurger(database, userCache, 0, 2);
+
+        Assertions.assertEquals(5, purger.purge());
+        Assertions.assertEquals(0, purger.purge());
+        Assertions.assertEquals(5, purger.getPurgedCount());
+        Assertions.assertEquals(0, countUsers("expired%"));
+        Assertions.assertEquals(1, countUsers("actual"));
+        Assertions.assertNull(userCache.getByLogin("expired0"));
+        purger.close();
+    }
+
+    private void insertUser(String login, long expirationTime) {
+        jdbcTemplate.update("insert into users(login, name, password, email, authority, expiration_date) " +
+                        "values (?, ?, '', ?, 'ROLE_USER', ?)",
+                login, login, login + "@example.com", new Timestamp(expirationTime));
+    }
+
+    private int countUsers(String loginPattern) {
+        Integer count = jdbcTemplate.queryForObject("select count(*) from users where login like ?", Integer.class,
+                loginPattern);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.vssavin.umlib.tests.unit;
+
+import io.github.vssavin.umlib.dto.RecoveryToken;
+import io.github.vssavin.umlib.service.impl.InMemoryRecoveryTokenStore;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class InMemoryRecoveryTokenStoreTest {
+
+    @Test
+    public void createAndGetTokenSuccess() {
+        InMemoryRecoveryTokenStore store = new InMemoryRecoveryTokenStore(10, 60_000, 0);
+        RecoveryToken token = store.create(1L);
+
+        RecoveryToken storedToken = store.get(token.getToken());
+        Assertions.assertNotNull(storedToken);
+        Assertions.assertEquals(1L, storedToken.getUserId());
+        Assertions.assertFalse(storedToken.isExpired());
+        store.close();
+    }
+
+    @Test
+    public void newTokenReplacesPreviousUserToken() {
+        InMemoryRecoveryTokenStore store = new InMemoryRecoveryTokenStore(10, 60_000, 0);
+        RecoveryToken first = store.create(1L);
+        RecoveryToken second = store.create(1L);
+
+        Assertions.assertNull(store.get(first.getToken()));
+        Assertions.assertNotNull(store.get(second.getToken()));
+        Assertions.assertEquals(1, store.size());
+        store.close();
+    }
+
+    @Test
+    public void oldestTokenRemovedWhenLimitExceeded() {
+        InMemoryRecoveryTokenStore store = new InMemoryRecoveryTokenStore(2, 60_000, 0);
+        RecoveryToken first = store.create(1L);
+        store.create(2L);
+        store.create(3L);
+
+        Assertions.assertEquals(2, store.size());
+        Assertions.assertNull(store.get(first.getToken()));
+        store.close();
+    }
+
+    @Test
+    public void expiredTokensRemoved() throws InterruptedException {
+        InMemoryRecoveryTokenStore store = new InMemoryRecoveryTokenStore(10, 1, 0);
+        RecoveryToken token = store.create(1L);
+        Thread.sleep(10);
+
+        Assertions.assertTrue(store.get(token.getToken()).isExpired());
+        Assertions.assertEquals(1, store.removeExpired());
+        Assertions.assertEquals(0, store.size());
+        Assertions.assertNull(store.get(token.getToken()));
+        store.close();
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.vssavin.umlib.tests.unit;
+
+import io.github.vssavin.umlib.entity.User;
+import io.github.vssavin.umlib.service.impl.InMemoryUserCache;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class InMemoryUserCacheTest {
+
+    @Test
+    public void lookupByAllKeysSuccess() {
+        InMemoryUserCache cache = new InMemoryUserCache(10, 60_000);
+        cache.put(createUser(1L, "user1"));
+
+        Assertions.assertEquals("user1", cache.getById(1L).getLogin());
+        Assertions.assertEquals("user1", cache.getByLogin("user1").getLogin());
+        Assertions.assertEquals("user1", cache.getByEmail("user1@example.com").getLogin());
+        Assertions.assertNull(cache.getByLogin("user2"));
+        Assertions.assertEquals(3, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void returnedUserIsCopy() {
+        InMemoryUserCache cache = new InMemoryUserCache(10, 60_000);
+        cache.put(createUser(1L, "user1"));
+        cache.getById(1L).setPassword("changed");
+
+        Assertions.assertEquals("password", cache.getById(1L).getPassword());
+    }
+
+    @Test
+    public void invalidateRemovesAllKeys() {
+        InMemoryUserCache cache = new InMemoryUserCache(10, 60_000);
+        User user = createUser(1L, "user1");
+        cache.put(user);
+        cache.invalidate(user);
+
+        Assertions.assertNull(cache.getById(1L));
+        Assertions.assertNull(cache.getByLogin("user1"));
+        Assertions.assertNull(cache.getByEmail("user1@example.com"));
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryEvicted() {
+        InMemoryUserCache cache = new InMemoryUserCache(2, 60_000);
+        cache.put(createUser(1L, "user1"));
+        cache.put(createUser(2L, "user2"));
+        cache.getById(1L);
+        cache.put(createUser(3L, "user3"));
+
+        Assertions.assertNotNull(cache.getByLogin("user1"));
+        Assertions.assertNull(cache.getByLogin("user2"));
+        Assertions.assertNotNull(cache.getByLogin("user3"));
+        Assertions.assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void expiredEntryEvicted() throws InterruptedException {
+        InMemoryUserCache cache = new InMemoryUserCache(10, 1);
+        cache.put(createUser(1L, "user1"));
+        Thread.sleep(10);
+
+        Assertions.assertNull(cache.getByLogin("user1"));
+        Assertions.assertEquals(1, cache.getEvictionCount());
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    private User createUser(Long id, String login) {
+        return User.builder().id(id).login(login).name(login).password("password")
+                .email(login + "@example.com").authority("ROLE_USER").build();
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.vssavin.umlib.tests.unit;
+
+import io.github.vssavin.umlib.security.spring.JdbcBanStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.H2;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class JdbcBanStoreTest {
+    private static final String ADDRESS = "10.0.0.1";
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(H2).addScript("init.sql").build();
+        jdbcTemplate = new JdbcTemplate(database);
+    }
+
+    @After
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void banSharedBetweenNodes() {
+        JdbcBanStore first = new JdbcBanStore(database, 0);
+        JdbcBanStore second = new JdbcBanStore(database, 0);
+
+        first.ban(ADDRESS, System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        Assertions.assertTrue(first.isBanned(ADDRESS));
+        Assertions.assertFalse(second.isBanned(ADDRESS));
+
+        second.refresh();
+        Assertions.assertTrue(second.isBanned(ADDRESS));
+
+        first.unban(ADDRESS);
+        second.refresh();
+        Assertions.assertFalse(second.isBanned(ADDRESS));
+    }
+
+    @Test
+    public void actualBansLoadedOnStart() {
+        JdbcBanStore first = new JdbcBanStore(database, 0);
+        first.ban(ADDRESS, System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        first.ban("10.0.0.2", System.currentTimeMillis() - 1);
+
+        JdbcBanStore second = new JdbcBanStore(database, 0);
+        Assertions.assertTrue(second.isBanned(ADDRESS));
+        Assertions.assertEquals(1, second.getBannedCount());
+    }
+
+    @Test
+    public void banOfNodeWithLaggingClockReceived() {
+        JdbcBanStore actualNode = new JdbcBanStore(database, 0);
+        Clock laggingClock = Clock.offset(Clock.systemUTC(), Duration.ofHours(-1));
+        JdbcBanStore laggingNode = new JdbcBanStore(database, 0, laggingClock);
+
+        laggingNode.ban(ADDRESS, System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        actualNode.refresh();
+        Assertions.assertTrue(actualNode.isBanned(ADDRESS));
+    }
+
+    @Test
+    public void updateTimeTakenFromDatabase() {
+        Clock laggingClock = Clock.offset(Clock.systemUTC(), Duration.ofHours(-1));
+        JdbcBanStore laggingNode = new JdbcBanStore(database, 0, laggingClock);
+        laggingNode.ban(ADDRESS, System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+
+        Timestamp updatedAt = jdbcTemplate.queryForObject("select updated_at from banned_ips where address = ?",
+                Timestamp.class, ADDRESS);
+        Assertions.assertNotNull(updatedAt);
+        Assertions.assertTrue(updatedAt.getTime() > System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(1));
+    }
+
+    @Test
+    public void expiredBansPurged() {
+        JdbcBanStore store = new JdbcBanStore(database, 0);
+        long now = System.currentTimeMillis();
+        store.ban(ADDRESS, now - TimeUnit.DAYS.toMillis(2));
+        store.ban("10.0.0.2", now - 1);
+
+        Assertions.assertEquals(1, store.purgeExpired(now));
+        Integer count = jdbcTemplate.queryForObject("select count(*) from banned_ips", Integer.class);
+        Assertions.assertEquals(1, count);
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.vssavin.umlib.tests.unit;
+
+import io.github.vssavin.umlib.service.impl.JdbcEmailOutbox;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.mail.SimpleMailMessage;
+
+import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.H2;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class JdbcEmailOutboxTest {
+    private EmbeddedDatabase database;
+
+    @Before
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(H2).addScript("init.sql").build();
+    }
+
+    @After
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void pendingEmailClaimedByOneNode() {
+        JdbcEmailOutbox firstNode = new JdbcEmailOutbox(database);
+        JdbcEmailOutbox secondNode = new JdbcEmailOutbox(database);
+        Long id = firstNode.save(createMessage());
+        Assertions.assertEquals(0, secondNode.claimPending(10, 60_000).size());
+
+        firstNode.release(id);
+        Assertions.assertEquals(1, secondNode.claimPending(10, 60_000).size());
+        Assertions.assertEquals(0, firstNode.claimPending(10, 60_000).size());
+    }
+
+    @Test
+    public void expiredClaimReclaimed() throws InterruptedException {
+        JdbcEmailOutbox firstNode = new JdbcEmailOutbox(database);
+        JdbcEmailOutbox secondNode = new JdbcEmailOutbox(database);
+        firstNode.save(createMessage());
+        Thread.sleep(50);
+
+        Assertions.assertEquals(1, secondNode.claimPending(10, 10).size());
+    }
+
+    @Test
+    public void textOfFailedEmailRemoved() {
+        JdbcEmailOutbox outbox = new JdbcEmailOutbox(database);
+        Long id = outbox.save(createMessage());
+        outbox.markFailed(id, 5);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        Assertions.assertNull(jdbcTemplate.queryForObject("select text from email_outbox where id = ?",
+                String.class, id));
+        Assertions.assertEquals(0, outbox.claimPending(10, 0).size());
+    }
+
+    private static SimpleMailMessage createMessage() {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("um@example.com");
+        message.setTo("user@example.com");
+        message.setSubject("subject");
+        message.setText("Your new password: 123");
+        return message;
+    }
+}
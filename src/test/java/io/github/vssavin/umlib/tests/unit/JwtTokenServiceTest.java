@@ -0,0 +1,167 @@
+package io.github.vssavin.umlib.tests.unit;
+
+import io.github.vssavin.umlib.entity.User;
+import io.github.vssavin.umlib.security.spring.JwtTokenService;
+import io.github.vssavin.umlib.security.spring.UserPrincipal;
+import io.github.vssavin.umlib.service.UserService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import javax.servlet.http.Cookie;
+import java.lang.reflect.Proxy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class JwtTokenServiceTest {
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+    private final UserService userService = createUserService(users);
+
+    @Before
+    public void setUp() {
+        users.put("admin", createUser(1L, "admin", "adminHash", "ROLE_ADMIN"));
+        users.put("user", createUser(2L, "user", "userHash", "ROLE_USER"));
+    }
+
+    @Test
+    public void tokenCarriesLoginAndAuthority() {
+        JwtTokenService tokenService = createTokenService(SECRET, Clock.systemUTC());
+        Authentication authentication = tokenService.parseToken(tokenService.createToken(users.get("admin")));
+
+        Assertions.assertNotNull(authentication);
+        Assertions.assertTrue(authentication.isAuthenticated());
+        Assertions.assertEquals("admin", authentication.getName());
+        Assertions.assertTrue(authentication.getPrincipal() instanceof UserPrincipal);
+        Assertions.assertEquals(1L, ((UserPrincipal) authentication.getPrincipal()).getId());
+        Assertions.assertEquals("ROLE_ADMIN",
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).findFirst().orElse(null));
+    }
+
+    @Test
+    public void tamperedTokenRejected() {
+        JwtTokenService tokenService = createTokenService(SECRET, Clock.systemUTC());
+        String token = tokenService.createToken(users.get("user"));
+        String adminToken = tokenService.createToken(users.get("admin"));
+        String[] parts = token.split("\\.");
+        String[] adminParts = adminToken.split("\\.");
+
+        Assertions.assertNull(tokenService.parseToken(parts[0] + "." + adminParts[1] + "." + parts[2]));
+        Assertions.assertNull(tokenService.parseToken("not a token"));
+    }
+
+    @Test
+    public void tokenOfOtherSecretRejected() {
+        JwtTokenService tokenService = createTokenService(SECRET, Clock.systemUTC());
+        JwtTokenService otherService = createTokenService("other secret", Clock.systemUTC());
+
+        Assertions.assertNull(tokenService.parseToken(otherService.createToken(users.get("admin"))));
+    }
+
+    @Test
+    public void expiredTokenRejected() {
+        Clock issueClock = Clock.fixed(Instant.now(), ZoneOffset.UTC);
+        JwtTokenService issuer = createTokenService(SECRET, issueClock);
+        JwtTokenService verifier = createTokenService(SECRET, Clock.offset(issueClock, Duration.ofMinutes(2)));
+
+        Assertions.assertNull(verifier.parseToken(issuer.createToken(users.get("user"))));
+    }
+
+    @Test
+    public void tokenRevokedIfPasswordChanged() {
+        JwtTokenService tokenService = createTokenService(SECRET, Clock.systemUTC());
+        String token = tokenService.createToken(users.get("user"));
+        User user = createUser(2L, "user", "userHash", "ROLE_USER");
+        user.setPassword("newUserHash");
+        users.put("user", user);
+
+        Assertions.assertNull(tokenService.parseToken(token));
+    }
+
+    @Test
+    public void tokenNotRevokedIfPasswordHashReEncoded() {
+        JwtTokenService tokenService = createTokenService(SECRET, Clock.systemUTC());
+        String token = tokenService.createToken(users.get("user"));
+        //hash upgrade updates the password column only, credentials version is not changed
+        users.put("user", createUser(2L, "user", "upgradedUserHash", "ROLE_USER"));
+
+        Assertions.assertNotNull(tokenService.parseToken(token));
+    }
+
+    @Test
+    public void tokenRevokedIfAuthorityChanged() {
+        JwtTokenService tokenService = createTokenService(SECRET, Clock.systemUTC());
+        String token = tokenService.createToken(users.get("admin"));
+        users.put("admin", createUser(1L, "admin", "adminHash", "ROLE_USER"));
+
+        Assertions.assertNull(tokenService.parseToken(token));
+    }
+
+    @Test
+    public void tokenRevokedIfUserDeleted() {
+        JwtTokenService tokenService = createTokenService(SECRET, Clock.systemUTC());
+        String token = tokenService.createToken(users.get("user"));
+        users.remove("user");
+
+        Assertions.assertNull(tokenService.parseToken(token));
+    }
+
+    @Test
+    public void tokenResolvedFromHeaderOrCookie() {
+        JwtTokenService tokenService = createTokenService(SECRET, Clock.systemUTC());
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        Assertions.assertNull(tokenService.resolveToken(request));
+
+        request.setCookies(new Cookie("UM_TOKEN", "cookie-token"));
+        Assertions.assertEquals("cookie-token", tokenService.resolveToken(request));
+
+        request.addHeader("Authorization", "Bearer header-token");
+        Assertions.assertEquals("header-token", tokenService.resolveToken(request));
+    }
+
+    @Test
+    public void tokenCookieIsHttpOnly() {
+        JwtTokenService tokenService = createTokenService(SECRET, Clock.systemUTC());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        tokenService.addTokenCookie(new MockHttpServletRequest(), response, "token");
+
+        Cookie cookie = response.getCookie("UM_TOKEN");
+        Assertions.assertNotNull(cookie);
+        Assertions.assertTrue(cookie.isHttpOnly());
+        Assertions.assertEquals(60, cookie.getMaxAge());
+        Assertions.assertEquals("/", cookie.getPath());
+    }
+
+    private JwtTokenService createTokenService(String secret, Clock clock) {
+        return new JwtTokenService(userService, true, secret, 60_000, "UM_TOKEN", clock);
+    }
+
+    private static User createUser(Long id, String login, String password, String authority) {
+        return User.builder().id(id).login(login).name(login).password(password).email(login + "@example.com")
+                .authority(authority).build();
+    }
+
+    /**
+     * Creates user service which finds users in the specified map.
+     */
+    private static UserService createUserService(Map<String, User> users) {
+        return (UserService) Proxy.newProxyInstance(UserService.class.getClassLoader(),
+                new Class<?>[]{UserService.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findUserByLogin")) return Optional.ofNullable(users.get(args[0]));
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
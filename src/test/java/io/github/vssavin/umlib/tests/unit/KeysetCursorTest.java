@@ -0,0 +1,38 @@
+package io.github.vssavin.umlib.tests.unit;
+
+import io.github.vssavin.umlib.pagination.KeysetCursor;
+import io.github.vssavin.umlib.pagination.KeysetPaging;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class KeysetCursorTest {
+
+    @Test
+    public void encodedCursorDecoded() {
+        KeysetCursor next = KeysetCursor.after(12345L);
+        KeysetCursor prev = KeysetCursor.before(7L);
+
+        Assertions.assertEquals(next, KeysetCursor.decode(next.encode()));
+        Assertions.assertEquals(prev, KeysetCursor.decode(prev.encode()));
+        Assertions.assertTrue(KeysetCursor.decode(next.encode()).isForward());
+        Assertions.assertFalse(KeysetCursor.decode(prev.encode()).isForward());
+    }
+
+    @Test
+    public void malformedCursorIgnored() {
+        Assertions.assertNull(KeysetCursor.decode(null));
+        Assertions.assertNull(KeysetCursor.decode(""));
+        Assertions.assertNull(KeysetCursor.decode("not a cursor"));
+        Assertions.assertNull(KeysetCursor.decode("eDox"));
+    }
+
+    @Test
+    public void approximateTotalPagesCalculated() {
+        Assertions.assertEquals(0, KeysetPaging.of(10, null, null, null).getApproximateTotalPages());
+        Assertions.assertEquals(3, KeysetPaging.of(10, null, null, 21L).getApproximateTotalPages());
+        Assertions.assertEquals(2, KeysetPaging.of(10, null, null, 20L).getApproximateTotalPages());
+    }
+}
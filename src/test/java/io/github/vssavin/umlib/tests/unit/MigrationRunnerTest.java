@@ -0,0 +1,86 @@
+package io.github.vssavin.umlib.tests.unit;
+
+import io.github.vssavin.umlib.config.SqlScriptsConfig;
+import io.github.vssavin.umlib.exception.MigrationException;
+import io.github.vssavin.umlib.migration.MigrationRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.H2;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class MigrationRunnerTest {
+    private static final String CHANGED_SCRIPT =
+            "create table IF NOT EXISTS test_table(id int);\nalter table test_table add name varchar(10);";
+
+    private EmbeddedDatabase database;
+    private MigrationRunner migrationRunner;
+
+    @Before
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(H2).build();
+        migrationRunner = new MigrationRunner(database);
+    }
+
+    @After
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void scriptsAppliedOnce() {
+        Assertions.assertEquals(1, migrationRunner.applyScripts("",
+                Collections.singletonList(new ClassPathResource("init.sql"))));
+        Assertions.assertEquals(6, migrationRunner.migrate(SqlScriptsConfig.MIGRATIONS_DIRECTORY));
+
+        Assertions.assertEquals(0, migrationRunner.applyScripts("",
+                Collections.singletonList(new ClassPathResource("init.sql"))));
+        Assertions.assertEquals(0, migrationRunner.migrate(SqlScriptsConfig.MIGRATIONS_DIRECTORY));
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        Assertions.assertEquals(6, jdbcTemplate.queryForObject(
+                "select count(*) from " + MigrationRunner.HISTORY_TABLE, Integer.class));
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject("select count(*) from users", Integer.class));
+    }
+
+    @Test
+    public void changedScriptAppliedAgain() {
+        Assertions.assertEquals(1, migrationRunner.applyScripts("",
+                Collections.singletonList(script("custom.sql", "create table test_table(id int);"))));
+        Assertions.assertEquals(1, migrationRunner.applyScripts("",
+                Collections.singletonList(script("custom.sql", CHANGED_SCRIPT))));
+        Assertions.assertEquals(0, migrationRunner.applyScripts("",
+                Collections.singletonList(script("custom.sql", CHANGED_SCRIPT))));
+    }
+
+    @Test
+    public void failedScriptRolledBack() {
+        Assertions.assertThrows(MigrationException.class, () -> migrationRunner.applyScripts("",
+                Collections.singletonList(script("broken.sql", "create table test_table(id int);\nbroken;"))));
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        Assertions.assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from " + MigrationRunner.SCRIPTS_TABLE, Integer.class));
+    }
+
+    private static ByteArrayResource script(String fileName, String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return fileName;
+            }
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.vssavin.umlib.tests.unit;
+
+import io.github.vssavin.umlib.entity.User;
+import io.github.vssavin.umlib.security.spring.PasswordHashUpgrader;
+import io.github.vssavin.umlib.service.impl.InMemoryUserCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.H2;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class PasswordHashUpgraderTest {
+    private static final int STRENGTH = 5;
+
+    private final BCryptPasswordEncoder legacyEncoder = new BCryptPasswordEncoder(STRENGTH - 1);
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(STRENGTH);
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(H2).addScript("init.sql").build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.update("delete from users");
+    }
+
+    @After
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void legacyHashUpgraded() throws InterruptedException {
+        User user = insertUser("user", legacyEncoder.encode("password"));
+        PasswordHashUpgrader upgrader = createUpgrader(false);
+
+        Assertions.assertTrue(upgrader.upgradeIfNecessary(user, "password"));
+        waitFor(() -> upgrader.getUpgradedCount() == 1);
+        upgrader.shutdown();
+
+        String hash = getPassword("user");
+        Assertions.assertTrue(hash.startsWith("$2a$05$"));
+        Assertions.assertTrue(encoder.matches("password", hash));
+    }
+
+    @Test
+    public void actualHashNotUpgraded() {
+        User user = insertUser("user", encoder.encode("password"));
+        PasswordHashUpgrader upgrader = createUpgrader(false);
+
+        Assertions.assertFalse(upgrader.upgradeIfNecessary(user, "password"));
+        upgrader.shutdown();
+    }
+
+    @Test
+    public void upgradeSkippedIfHashChangedConcurrently() throws InterruptedException {
+        User user = insertUser("user", legacyEncoder.encode("password"));
+        String changedHash = encoder.encode("newPassword");
+        jdbcTemplate.update("update users set password = ? where login = ?", changedHash, "user");
+        PasswordHashUpgrader upgrader = createUpgrader(false);
+
+        Assertions.assertTrue(upgrader.upgradeIfNecessary(user, "password"));
+        waitFor(() -> upgrader.getSkippedCount() == 1);
+        upgrader.shutdown();
+
+        Assertions.assertEquals(0, upgrader.getUpgradedCount());
+        Assertions.assertEquals(changedHash, getPassword("user"));
+    }
+
+    @Test
+    public void legacyHashesCounted() {
+        insertUser("legacy", legacyEncoder.encode("password"));
+        insertUser("actual", encoder.encode("password"));
+        insertUser("prefixedLegacy", "{bcrypt}" + legacyEncoder.encode("password"));
+        insertUser("prefixedActual", "{bcrypt}" + encoder.encode("password"));
+        insertUser("pbkdf2", "{pbkdf2}0123456789abcdef");
+        insertUser("empty", "");
+
+        PasswordHashUpgrader upgrader = createUpgrader(false);
+        Assertions.assertEquals(1, upgrader.getLegacyHashCount());
+        upgrader.shutdown();
+
+        PasswordHashUpgrader delegatingUpgrader = createUpgrader(true);
+        Assertions.assertEquals(4, delegatingUpgrader.getLegacyHashCount());
+        delegatingUpgrader.shutdown();
+    }
+
+    private PasswordHashUpgrader createUpgrader(boolean delegating) {
+        return new PasswordHashUpgrader(encoder, new InMemoryUserCache(100, TimeUnit.MINUTES.toMillis(1)),
+                database, STRENGTH, delegating);
+    }
+
+    private User insertUser(String login, String password) {
+        jdbcTemplate.update("insert into users(login, name, password, email, authority, expiration_date) " +
+                        "values (?, ?, ?, ?, 'ROLE_USER', ?)",
+                login, login, password, login + "@example.com",
+                new Timestamp(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)));
+        Long id = jdbcTemplate.queryForObject("select id from users where login = ?", Long.class, login);
+        return User.builder().id(id).login(login).name(login).password(password).email(login + "@example.com")
+                .authority("ROLE_USER").build();
+    }
+
+    private String getPassword(String login) {
+        return jdbcTemplate.queryForObject("select password from users where login = ?", String.class, login);
+    }
+
+    private static void waitFor(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.isMet() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+}
@@ -0,0 +1,183 @@
+package io.github.vssavin.umlib.tests.unit;
+
+import io.github.vssavin.umlib.service.SecureService;
+import io.github.vssavin.umlib.service.impl.SecureKeyManager;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.lang.reflect.Proxy;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class SecureKeyManagerTest {
+
+    @Test
+    public void keyCachedPerAddress() {
+        Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        SecureKeyManager keyManager = new SecureKeyManager(createSecureService(calls), 10, 60_000);
+
+        Assertions.assertEquals("key-127.0.0.1", keyManager.getSecureKey("127.0.0.1"));
+        Assertions.assertEquals("key-127.0.0.1", keyManager.getSecureKey("127.0.0.1"));
+        Assertions.assertEquals("key-127.0.0.2", keyManager.getSecureKey("127.0.0.2"));
+        Assertions.assertEquals(2, calls.get("getSecureKey").get());
+    }
+
+    @Test
+    public void leastRecentlyUsedKeyEvicted() {
+        Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        SecureKeyManager keyManager = new SecureKeyManager(createSecureService(calls), 2, 60_000);
+        keyManager.getSecureKey("127.0.0.1");
+        keyManager.getSecureKey("127.0.0.2");
+        keyManager.getSecureKey("127.0.0.1");
+        keyManager.getSecureKey("127.0.0.3");
+
+        Assertions.assertEquals(2, keyManager.size());
+        keyManager.getSecureKey("127.0.0.1");
+        Assertions.assertEquals(3, calls.get("getSecureKey").get());
+        keyManager.getSecureKey("127.0.0.2");
+        Assertions.assertEquals(4, calls.get("getSecureKey").get());
+    }
+
+    @Test
+    public void valueDecryptedOncePerRequest() {
+        Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        SecureKeyManager keyManager = new SecureKeyManager(createSecureService(calls), 10, 60_000);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        Assertions.assertEquals("password:key-127.0.0.1", keyManager.decrypt(request, "password"));
+        Assertions.assertEquals("password:key-127.0.0.1", keyManager.decrypt(request, "password"));
+        Assertions.assertEquals(1, calls.get("decrypt").get());
+
+        keyManager.decrypt(new MockHttpServletRequest(), "password");
+        Assertions.assertEquals(2, calls.get("decrypt").get());
+    }
+
+    @Test
+    public void keyStableWhileUsed() throws InterruptedException {
+        SecureKeyManager keyManager = new SecureKeyManager(createRotatingSecureService(), 10, 200);
+        String key = keyManager.getSecureKey("127.0.0.1");
+        for (int i = 0; i < 3; i++) {
+            Thread.sleep(100);
+            Assertions.assertEquals(key, keyManager.getSecureKey("127.0.0.1"));
+        }
+    }
+
+    @Test
+    public void formSubmittedAfterKeyIdleTimeoutDecryptedWithIssuedKey() throws InterruptedException {
+        SecureKeyManager keyManager = new SecureKeyManager(createRotatingSecureService(), 10, 50);
+        String formKey = keyManager.getSecureKey("127.0.0.1");
+        Thread.sleep(100);
+        //other client with the same address receives new key
+        String newKey = keyManager.getSecureKey("127.0.0.1");
+        Assertions.assertNotEquals(formKey, newKey);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("127.0.0.1");
+        request.addParameter(SecureKeyManager.KEY_ID_PARAMETER, SecureKeyManager.getKeyId(formKey));
+        Assertions.assertEquals("password", keyManager.decrypt(request, "password|" + formKey));
+        Assertions.assertEquals("password",
+                keyManager.decrypt("password|" + newKey, "127.0.0.1", SecureKeyManager.getKeyId(newKey)));
+    }
+
+    @Test
+    public void keyOfOtherAddressNotUsed() {
+        SecureKeyManager keyManager = new SecureKeyManager(createRotatingSecureService(), 10, 60_000);
+        String key = keyManager.getSecureKey("127.0.0.1");
+        keyManager.getSecureKey("127.0.0.2");
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> keyManager.decrypt("password|" + key, "127.0.0.2", SecureKeyManager.getKeyId(key)));
+    }
+
+    @Test
+    public void keyIssuedFromPool() throws InterruptedException {
+        Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        try (SecureKeyManager keyManager = new SecureKeyManager(createSecureService(calls), 10, 60_000, 0,
+                60_000, 2)) {
+            waitForPoolSize(keyManager, 2);
+            Assertions.assertEquals("key-um-key-pool-0", keyManager.getSecureKey("127.0.0.1"));
+            Assertions.assertEquals("key-um-key-pool-1", keyManager.getSecureKey("127.0.0.2"));
+            waitForPoolSize(keyManager, 2);
+            Assertions.assertEquals(4, calls.get("getSecureKey").get());
+        }
+    }
+
+    @Test
+    public void poolKeyIdsReused() {
+        Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        try (SecureKeyManager keyManager = new SecureKeyManager(createSecureService(calls), 1, 60_000, 0,
+                60_000, 1)) {
+            keyManager.refillPool();
+            Set<String> keys = new HashSet<>();
+            for (int i = 0; i < 10; i++) {
+                keys.add(keyManager.getSecureKey("127.0.0." + i));
+                keyManager.refillPool();
+            }
+            //ids are bounded by the pool size and the sizes of the address and issued keys caches
+            Assertions.assertTrue(keys.size() <= 3);
+            Assertions.assertTrue(keys.stream().allMatch(key -> key.startsWith("key-um-key-pool-")));
+        }
+    }
+
+    @Test
+    public void replacedKeyAcceptedDuringGracePeriod() throws InterruptedException {
+        SecureKeyManager keyManager = new SecureKeyManager(createRotatingSecureService(), 10, 60_000, 50, 300, 0);
+        String formKey = keyManager.getSecureKey("127.0.0.1");
+        Thread.sleep(100);
+        String newKey = keyManager.getSecureKey("127.0.0.1");
+        Assertions.assertNotEquals(formKey, newKey);
+        Assertions.assertEquals("password",
+                keyManager.decrypt("password|" + formKey, "127.0.0.1", SecureKeyManager.getKeyId(formKey)));
+
+        Thread.sleep(400);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> keyManager.decrypt("password|" + formKey, "127.0.0.1", SecureKeyManager.getKeyId(formKey)));
+    }
+
+    private static void waitForPoolSize(SecureKeyManager keyManager, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (keyManager.getPoolSize() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(size, keyManager.getPoolSize());
+    }
+
+    /**
+     * Creates secure service which returns key based on the address and counts calls.
+     */
+    private static SecureService createSecureService(Map<String, AtomicInteger> calls) {
+        return (SecureService) Proxy.newProxyInstance(SecureService.class.getClassLoader(),
+                new Class<?>[]{SecureService.class}, (proxy, method, args) -> {
+                    calls.computeIfAbsent(method.getName(), name -> new AtomicInteger()).incrementAndGet();
+                    if (method.getName().equals("getSecureKey")) return "key-" + args[0];
+                    if (method.getName().equals("decrypt")) return args[0] + ":" + args[1];
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Creates secure service which returns new key on each call,
+     * value is decrypted only if it is encrypted with the specified key.
+     */
+    private static SecureService createRotatingSecureService() {
+        AtomicInteger counter = new AtomicInteger();
+        return (SecureService) Proxy.newProxyInstance(SecureService.class.getClassLoader(),
+                new Class<?>[]{SecureService.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getSecureKey")) return "key-" + counter.incrementAndGet();
+                    if (method.getName().equals("decrypt")) {
+                        String encrypted = (String) args[0];
+                        String suffix = "|" + args[1];
+                        if (!encrypted.endsWith(suffix)) throw new IllegalArgumentException("Wrong key");
+                        return encrypted.substring(0, encrypted.length() - suffix.length());
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.vssavin.umlib.tests.unit;
+
+import io.github.vssavin.umlib.metrics.NoOpUmMetrics;
+import io.github.vssavin.umlib.metrics.SimpleUmMetrics;
+import io.github.vssavin.umlib.metrics.UmMetricsBeanPostProcessor;
+import io.github.vssavin.umlib.service.SecureService;
+import io.github.vssavin.umlib.service.impl.NoSecureService;
+import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created by vssavin on 18.10.2026.
+ */
+public class SimpleUmMetricsTest {
+
+    @Test
+    public void metricsRecorded() {
+        SimpleUmMetrics metrics = new SimpleUmMetrics();
+        AtomicLong gaugeValue = new AtomicLong(5);
+        metrics.gauge("gauge", gaugeValue::get);
+        metrics.increment("counter");
+        metrics.increment("counter");
+        metrics.stopTimer("timer", metrics.startTimer());
+        gaugeValue.set(7);
+
+        Map<String, Long> snapshot = metrics.snapshot();
+        Assertions.assertEquals(2L, snapshot.get("counter"));
+        Assertions.assertEquals(1L, snapshot.get("timer.count"));
+        Assertions.assertEquals(7L, snapshot.get("gauge"));
+        Assertions.assertEquals(7L, metrics.getGaugeValue("gauge"));
+    }
+
+    @Test
+    public void secureServiceDecryptTimed() {
+        SimpleUmMetrics metrics = new SimpleUmMetrics();
+        SecureService secureService = (SecureService) new UmMetricsBeanPostProcessor(metrics)
+                .postProcessAfterInitialization(new NoSecureService(), "noSecureService");
+
+        Assertions.assertEquals("text", secureService.decrypt("text", ""));
+        secureService.getSecureKey("");
+        Assertions.assertEquals(1, metrics.getCount("um.secureService.decrypt"));
+        Assertions.assertEquals(0, metrics.getCount("um.secureService.getSecureKey"));
+    }
+
+    @Test
+    public void secureServiceProxiedByClass() {
+        SimpleUmMetrics metrics = new SimpleUmMetrics();
+        Object bean = new UmMetricsBeanPostProcessor(metrics)
+                .postProcessAfterInitialization(new NoSecureService(), "noSecureService");
+
+        Assertions.assertTrue(bean instanceof NoSecureService);
+        Assertions.assertEquals("text", ((NoSecureService) bean).decrypt("text", ""));
+        Assertions.assertEquals(1, metrics.getCount("um.secureService.decrypt"));
+    }
+
+    @Test
+    public void failedCallTimedAndCounted() {
+        SimpleUmMetrics metrics = new SimpleUmMetrics();
+        SecureService secureService = (SecureService) new UmMetricsBeanPostProcessor(metrics)
+                .postProcessAfterInitialization(createFailingSecureService(), "failingSecureService");
+
+        Assertions.assertThrows(IllegalStateException.class, () -> secureService.decrypt("text", ""));
+        Assertions.assertEquals(1, metrics.getCount("um.secureService.decrypt"));
+        Assertions.assertEquals(1, metrics.getCount("um.secureService.decrypt.errors"));
+    }
+
+    @Test
+    public void beansNotWrappedIfMetricsDisabled() {
+        NoSecureService secureService = new NoSecureService();
+        Assertions.assertSame(secureService, new UmMetricsBeanPostProcessor(NoOpUmMetrics.INSTANCE)
+                .postProcessAfterInitialization(secureService, "noSecureService"));
+    }
+
+    /**
+     * Creates secure service, every method of which fails.
+     */
+    private static SecureService createFailingSecureService() {
+        return (SecureService) Proxy.newProxyInstance(SecureService.class.getClassLoader(),
+                new Class<?>[]{SecureService.class}, (proxy, method, args) -> {
+                    throw new IllegalStateException(method.getName() + " failed");
+                });
+    }
+}